@@ -1,10 +1,115 @@
 package com.helpdesk.srvc_tckt.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor for {@code @Async} methods: a bounded pool with a bounded queue, so a stalled
+ * downstream cannot pile up unbounded work. When both are full the rejection policy applies:
+ * {@code drop} discards the task, {@code caller-runs} runs it on the submitting thread.
+ * Active, queued and rejected counts are published as {@code app.async.*} metrics.
+ */
 @Configuration
 @EnableAsync
-public class AsyncConfig {
-    // Enables async email sending
+@Slf4j
+public class AsyncConfig implements AsyncConfigurer {
+
+    public enum RejectionPolicy {
+        CALLER_RUNS, DROP
+    }
+
+    private final LongAdder rejected = new LongAdder();
+
+    @Value("${app.async.core-size:2}")
+    private int coreSize;
+
+    @Value("${app.async.max-size:8}")
+    private int maxSize;
+
+    @Value("${app.async.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.async.keep-alive:PT60S}")
+    private Duration keepAlive;
+
+    @Value("${app.async.rejection-policy:drop}")
+    private RejectionPolicy rejectionPolicy;
+
+    @Value("${app.async.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public ThreadPoolTaskExecutor asyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds((int) keepAlive.toSeconds());
+        executor.setThreadNamePrefix("async-");
+        if (virtualThreads) {
+            // Workers are cheap virtual threads, so max-size can go far beyond what platform
+            // threads allow; the queue bound and rejection policy still apply
+            executor.setThreadFactory(Thread.ofVirtual().name("async-", 0).factory());
+        }
+        executor.setRejectedExecutionHandler(rejectionHandler());
+
+        log.info("Async executor: {}-{} {} threads, queue {}, {} when full", coreSize, maxSize,
+                virtualThreads ? "virtual" : "platform", queueCapacity, rejectionPolicy);
+        return executor;
+    }
+
+    @Bean
+    public MeterBinder asyncExecutorMetrics(ThreadPoolTaskExecutor asyncExecutor) {
+        return meterRegistry -> {
+            Gauge.builder("app.async.active", asyncExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                    .description("Async tasks currently running")
+                    .register(meterRegistry);
+            Gauge.builder("app.async.queued", asyncExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                    .description("Async tasks waiting for a thread")
+                    .register(meterRegistry);
+            Gauge.builder("app.async.pool.size", asyncExecutor, ThreadPoolTaskExecutor::getPoolSize)
+                    .description("Threads in the async pool")
+                    .register(meterRegistry);
+            FunctionCounter.builder("app.async.rejected", rejected, LongAdder::sum)
+                    .description("Async tasks rejected because the pool and queue were full")
+                    .register(meterRegistry);
+        };
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> log.error("Async method {} failed", method.getName(), e);
+    }
+
+    private RejectedExecutionHandler rejectionHandler() {
+        RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+        return (task, pool) -> {
+            rejected.increment();
+            if (rejectionPolicy == RejectionPolicy.CALLER_RUNS) {
+                callerRuns.rejectedExecution(task, pool);
+            } else {
+                log.warn("Async executor saturated ({} queued), dropping task", pool.getQueue().size());
+            }
+        };
+    }
 }
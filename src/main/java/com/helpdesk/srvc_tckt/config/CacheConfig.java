@@ -0,0 +1,47 @@
+package com.helpdesk.srvc_tckt.config;
+
+import com.helpdesk.srvc_tckt.repository.DatabasePlatform;
+import com.helpdesk.srvc_tckt.service.LocalTicketCacheInvalidator;
+import com.helpdesk.srvc_tckt.service.PostgresTicketCacheInvalidator;
+import com.helpdesk.srvc_tckt.service.TicketCache;
+import com.helpdesk.srvc_tckt.service.TicketCacheInvalidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DriverManager;
+import java.time.Duration;
+
+/**
+ * The ticket read cache and, per database, how its entries are invalidated across replicas:
+ * LISTEN/NOTIFY on PostgreSQL, and an in-JVM stand-in on H2.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public TicketCache ticketCache(@Value("${app.cache.tickets.maximum-size:10000}") long maximumSize,
+                                   @Value("${app.cache.tickets.time-to-live:PT5M}") Duration timeToLive,
+                                   MeterRegistry meterRegistry) {
+        return new TicketCache(maximumSize, timeToLive, meterRegistry);
+    }
+
+    @Bean
+    public TicketCacheInvalidator ticketCacheInvalidator(
+            TicketCache ticketCache,
+            DatabasePlatform databasePlatform,
+            JdbcTemplate jdbcTemplate,
+            @Value("${spring.datasource.url:}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${app.cache.tickets.listen-retry-delay:PT5S}") Duration retryDelay) {
+        if (databasePlatform == DatabasePlatform.POSTGRESQL) {
+            // Its own connection: a LISTEN session must outlive any pooled connection
+            return new PostgresTicketCacheInvalidator(ticketCache, jdbcTemplate,
+                    () -> DriverManager.getConnection(url, username, password), retryDelay);
+        }
+        return new LocalTicketCacheInvalidator(ticketCache, url);
+    }
+}
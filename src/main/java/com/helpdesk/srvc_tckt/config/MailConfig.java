@@ -0,0 +1,44 @@
+package com.helpdesk.srvc_tckt.config;
+
+import com.helpdesk.srvc_tckt.service.PooledJavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.mail.autoconfigure.MailProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Replaces Boot's connect-per-send mail sender with {@link PooledJavaMailSender} when
+ * {@code app.email.transport.pooled=true}. The regular {@code spring.mail.*} settings still
+ * apply; JNDI sessions and SSL bundles are only supported by the non-pooled sender.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.email.transport.pooled", havingValue = "true")
+    public PooledJavaMailSender pooledJavaMailSender(MailProperties properties,
+                                                     @Value("${app.email.transport.pool-size:2}") int poolSize,
+                                                     @Value("${app.email.transport.idle-timeout:PT60S}") Duration idleTimeout) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(poolSize, idleTimeout);
+        sender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            sender.setPort(properties.getPort());
+        }
+        sender.setUsername(properties.getUsername());
+        sender.setPassword(properties.getPassword());
+        sender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(properties.getProperties());
+        sender.setJavaMailProperties(javaMailProperties);
+        return sender;
+    }
+}
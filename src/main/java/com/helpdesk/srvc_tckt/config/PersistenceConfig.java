@@ -0,0 +1,16 @@
+package com.helpdesk.srvc_tckt.config;
+
+import com.helpdesk.srvc_tckt.repository.DatabasePlatform;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class PersistenceConfig {
+
+    @Bean
+    public DatabasePlatform databasePlatform(DataSource dataSource) {
+        return DatabasePlatform.detect(dataSource);
+    }
+}
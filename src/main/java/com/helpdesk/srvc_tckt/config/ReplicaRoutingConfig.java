@@ -0,0 +1,99 @@
+package com.helpdesk.srvc_tckt.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with a {@link ReplicaRoutingDataSource} when
+ * {@code app.datasource.replica.urls} lists one or more read replicas. The primary pool is built
+ * from the usual {@code spring.datasource.*} and {@code spring.datasource.hikari.*} settings;
+ * each replica gets a pool of its own, sized by {@code app.datasource.replica.maximum-pool-size}.
+ * <p>
+ * Reads from a replica can be up to {@code max-lag} plus {@code check-interval} stale: a replica
+ * that falls behind is only skipped from the next check on. A replica whose connection to the
+ * primary dies silently is noticed once PostgreSQL's {@code wal_receiver_timeout} ends the WAL
+ * receiver, which adds to that bound.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.urls")
+@Slf4j
+public class ReplicaRoutingConfig {
+
+    // Zero on a replica that has replayed everything it received, so an idle primary does not
+    // look like lag; zero on a primary too. "Everything it received" only means caught up while
+    // the WAL receiver is streaming: once it disconnects both positions freeze and would read as
+    // zero lag forever, so a replica that is not streaming reports NULL and is skipped.
+    private static final String POSTGRESQL_LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${app.datasource.replica.urls}") List<String> replicaUrls,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${app.datasource.replica.connection-timeout:PT2S}") Duration connectionTimeout,
+            @Value("${app.datasource.replica.max-lag:PT5S}") Duration maxLag,
+            @Value("${app.datasource.replica.check-interval:PT5S}") Duration checkInterval,
+            @Value("${app.datasource.replica.lag-query:}") String lagQuery) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setMinimumIdle(Math.min(2, maximumPoolSize));
+            // Fail fast and fall back to the primary rather than queue behind a dead replica
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        log.info("Routing read-only transactions to {} replicas lagging at most {}", replicas.size(), maxLag);
+        return new ReplicaRoutingDataSource(primary, replicas, maxLag,
+                lagQuery.isBlank() ? POSTGRESQL_LAG_QUERY : lagQuery, checkInterval);
+    }
+
+    @Bean
+    public MeterBinder replicaMetrics(ReplicaRoutingDataSource dataSource) {
+        return registry -> dataSource.getReplicas().forEach(replica -> {
+            Gauge.builder("app.datasource.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagSeconds)
+                    .description("Replication lag, NaN while the replica is unreachable or not streaming")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+            Gauge.builder("app.datasource.replica.usable", replica, r -> r.isUsable() ? 1 : 0)
+                    .description("1 while read-only transactions are routed to the replica")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,143 @@
+package com.helpdesk.srvc_tckt.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to read replicas and everything else to the primary.
+ * <p>
+ * Physical connections are fetched lazily, once the transaction has marked its connection
+ * read-only, so {@code @Transactional(readOnly = true)} is all a caller needs. Each replica has
+ * its own pool. A background check measures every replica's replication lag; replicas behind
+ * by more than the allowed staleness, unreachable, or whose lag query returns NULL (unknown)
+ * are skipped until they catch up, and when none is usable read-only work goes to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final ScheduledExecutorService lagChecker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                    Duration maxLag, String lagQuery, Duration checkInterval) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        setReadOnlyDataSource(new ReadOnlyDataSource());
+
+        lagChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-lag-check")
+                .daemon(true)
+                .factory());
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                rs.next();
+                double lag = rs.getDouble(1);
+                if (rs.wasNull()) {
+                    // The lag query cannot tell, e.g. the replica is not receiving WAL
+                    replica.lagSeconds = Double.NaN;
+                    replica.setUsable(false, "lag unknown");
+                    continue;
+                }
+                replica.lagSeconds = lag;
+                replica.setUsable(lag * 1000 <= maxLag.toMillis(), "lag " + lag + "s");
+            } catch (SQLException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.setUsable(false, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    public static final class Replica {
+
+        private final HikariDataSource pool;
+        private volatile boolean usable;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        public String getName() {
+            return pool.getPoolName();
+        }
+
+        public boolean isUsable() {
+            return usable;
+        }
+
+        // NaN while unreachable or unknown
+        public double getLagSeconds() {
+            return lagSeconds;
+        }
+
+        private void setUsable(boolean usable, String reason) {
+            if (usable != this.usable) {
+                log.info("Replica {} is {} ({})", getName(), usable ? "in use" : "skipped", reason);
+            }
+            this.usable = usable;
+        }
+    }
+
+    // Round-robin over the usable replicas, the primary when there are none
+    private final class ReadOnlyDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.usable) {
+                    continue;
+                }
+                try {
+                    return replica.pool.getConnection();
+                } catch (SQLException e) {
+                    replica.setUsable(false, e.getMessage());
+                }
+            }
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return primary.getConnection(username, password);
+        }
+    }
+}
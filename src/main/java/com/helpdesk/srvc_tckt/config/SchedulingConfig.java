@@ -0,0 +1,12 @@
+package com.helpdesk.srvc_tckt.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables periodic background jobs (counter reconciliation, outbox dispatch, archive sweep).
+    // The scheduler pool is sized by spring.task.scheduling.pool.size; jobs that may block on
+    // something slow, like sending email, hand their work to the async executor instead.
+}
@@ -0,0 +1,30 @@
+package com.helpdesk.srvc_tckt.config;
+
+import com.helpdesk.srvc_tckt.repository.DatabasePlatform;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import com.helpdesk.srvc_tckt.service.InMemoryTicketSearch;
+import com.helpdesk.srvc_tckt.service.PostgresTicketSearch;
+import com.helpdesk.srvc_tckt.service.TicketSearch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Searches with PostgreSQL full-text search where available, and with an in-process index
+ * everywhere else.
+ */
+@Configuration
+@Slf4j
+public class SearchConfig {
+
+    @Bean
+    public TicketSearch ticketSearch(DatabasePlatform databasePlatform, TicketRepository ticketRepository,
+                                     @Value("${app.search.rank-candidates:10000}") int rankCandidates) {
+        if (databasePlatform == DatabasePlatform.POSTGRESQL) {
+            return new PostgresTicketSearch(ticketRepository, rankCandidates);
+        }
+        log.info("No full-text search in {}, indexing tickets in memory", databasePlatform);
+        return new InMemoryTicketSearch(ticketRepository);
+    }
+}
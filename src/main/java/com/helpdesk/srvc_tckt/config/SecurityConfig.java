@@ -23,6 +23,7 @@ public class SecurityConfig {
                 .requestMatchers("/h2-console/**").permitAll()
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers("/css/**", "/js/**").permitAll()
+                .requestMatchers("/tickets/import", "/tickets/export", "/tickets/bulk/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
@@ -0,0 +1,60 @@
+package com.helpdesk.srvc_tckt.config;
+
+import com.helpdesk.srvc_tckt.repository.DatabasePlatform;
+import com.helpdesk.srvc_tckt.service.SequenceBlockTicketNumberGenerator;
+import com.helpdesk.srvc_tckt.service.SnowflakeTicketNumberGenerator;
+import com.helpdesk.srvc_tckt.service.TicketNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Picks the ticket number generator from {@code app.ticket-number.mode}:
+ * {@code sequence} (default, short sequential numbers from the {@code ticket_number_seq}
+ * sequence) or {@code snowflake} (no database access, but every replica needs its own node id).
+ * <p>
+ * Snowflake takes the node id from {@code app.ticket-number.node-id} or the StatefulSet
+ * ordinal in {@code pod.name}. Deployment pods have neither, and any id derived from their
+ * random names could repeat between replicas and repeat ticket numbers, so startup fails instead.
+ */
+@Configuration
+@Slf4j
+public class TicketNumberConfig {
+
+    private static final String NEXT_BLOCK_SQL = "SELECT nextval('ticket_number_seq')";
+
+    @Bean
+    @ConditionalOnProperty(name = "app.ticket-number.mode", havingValue = "snowflake")
+    public TicketNumberGenerator snowflakeTicketNumberGenerator(
+            @Value("${app.ticket-number.node-id:-1}") int configuredNodeId,
+            @Value("${pod.name:unknown-pod}") String podName) {
+        int nodeId = configuredNodeId;
+        if (nodeId < 0) {
+            nodeId = SnowflakeTicketNumberGenerator.ordinalOf(podName);
+        }
+        if (nodeId < 0) {
+            throw new IllegalStateException("Pod name " + podName + " has no StatefulSet ordinal to use as the "
+                    + "ticket number node id; set a distinct app.ticket-number.node-id per replica or use "
+                    + "app.ticket-number.mode=sequence");
+        }
+        log.info("Generating Snowflake ticket numbers as node {}", nodeId);
+        return new SnowflakeTicketNumberGenerator(nodeId);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.ticket-number.mode", havingValue = "sequence", matchIfMissing = true)
+    public TicketNumberGenerator sequenceTicketNumberGenerator(JdbcTemplate jdbcTemplate,
+                                                               DatabasePlatform databasePlatform) {
+        // The block size is whatever the sequence increments by, so the two can never disagree
+        String incrementSql = databasePlatform == DatabasePlatform.POSTGRESQL
+                ? "SELECT increment_by FROM pg_sequences WHERE sequencename = 'ticket_number_seq'"
+                : "SELECT \"INCREMENT\" FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'TICKET_NUMBER_SEQ'";
+        Long blockSize = jdbcTemplate.queryForObject(incrementSql, Long.class);
+        log.info("Generating sequential ticket numbers in blocks of {}", blockSize);
+        return new SequenceBlockTicketNumberGenerator(
+                () -> jdbcTemplate.queryForObject(NEXT_BLOCK_SQL, Long.class), blockSize);
+    }
+}
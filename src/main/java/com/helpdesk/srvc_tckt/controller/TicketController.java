@@ -1,20 +1,45 @@
 package com.helpdesk.srvc_tckt.controller;
 
+import com.helpdesk.srvc_tckt.dto.TicketBulkFilter;
+import com.helpdesk.srvc_tckt.dto.TicketBulkResult;
 import com.helpdesk.srvc_tckt.dto.TicketCreateRequest;
+import com.helpdesk.srvc_tckt.dto.TicketImportResult;
+import com.helpdesk.srvc_tckt.dto.TicketPage;
+import com.helpdesk.srvc_tckt.dto.TicketSearchPage;
 import com.helpdesk.srvc_tckt.dto.TicketUpdateRequest;
 import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.service.TicketBulkService;
+import com.helpdesk.srvc_tckt.service.TicketExportService;
+import com.helpdesk.srvc_tckt.service.TicketFileFormat;
+import com.helpdesk.srvc_tckt.service.TicketImportService;
 import com.helpdesk.srvc_tckt.service.TicketService;
+import com.helpdesk.srvc_tckt.service.TicketStreamService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @Controller
 @RequestMapping("/tickets")
@@ -23,41 +48,50 @@ import java.util.Map;
 public class TicketController {
 
     private final TicketService ticketService;
+    private final TicketStreamService ticketStreamService;
+    private final TicketImportService ticketImportService;
+    private final TicketExportService ticketExportService;
+    private final TicketBulkService ticketBulkService;
 
     @GetMapping
     public String listTickets(
             @RequestParam(required = false) String filter,
             @RequestParam(required = false) String value,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             Model model,
             Authentication authentication) {
 
         String agentName = authentication != null ? authentication.getName() : "guest";
+        TicketPage page;
 
         if (filter != null && value != null) {
             switch (filter) {
                 case "status":
-                    model.addAttribute("tickets", ticketService.getTicketsByStatus(Ticket.Status.valueOf(value)));
+                    page = ticketService.getTicketsByStatusPage(Ticket.Status.valueOf(value), cursor, size);
                     model.addAttribute("filterTitle", "Status: " + value);
                     break;
                 case "priority":
-                    model.addAttribute("tickets", ticketService.getTicketsByPriority(Ticket.Priority.valueOf(value)));
+                    page = ticketService.getTicketsByPriorityPage(Ticket.Priority.valueOf(value), cursor, size);
                     model.addAttribute("filterTitle", "Priority: " + value);
                     break;
                 case "category":
-                    model.addAttribute("tickets", ticketService.getTicketsByCategory(Ticket.Category.valueOf(value)));
+                    page = ticketService.getTicketsByCategoryPage(Ticket.Category.valueOf(value), cursor, size);
                     model.addAttribute("filterTitle", "Category: " + value);
                     break;
                 case "agent":
-                    model.addAttribute("tickets", ticketService.getTicketsByAgent(value));
+                    page = ticketService.getTicketsByAgentPage(value, cursor, size);
                     model.addAttribute("filterTitle", "Agent: " + value);
                     break;
                 default:
-                    model.addAttribute("tickets", ticketService.getAllActiveTickets());
+                    page = ticketService.getActiveTicketsPage(cursor, size);
             }
         } else {
-            model.addAttribute("tickets", ticketService.getAllActiveTickets());
+            page = ticketService.getActiveTicketsPage(cursor, size);
         }
 
+        addPage(model, page, cursor);
+
         model.addAttribute("agentName", agentName);
         model.addAttribute("priorities", Ticket.Priority.values());
         model.addAttribute("categories", Ticket.Category.values());
@@ -66,6 +100,33 @@ public class TicketController {
         return "tickets/list";
     }
 
+    @GetMapping("/search")
+    public String searchTickets(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            Model model,
+            Authentication authentication) {
+
+        String agentName = authentication != null ? authentication.getName() : "guest";
+        TicketSearchPage results = ticketService.search(query, page, size);
+
+        model.addAttribute("search", results);
+        if (results.isHasNext()) {
+            model.addAttribute("nextPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", results.getPage() + 1)
+                    .build().toUriString());
+        }
+        if (results.getPage() > 0) {
+            model.addAttribute("previousPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", results.getPage() - 1)
+                    .build().toUriString());
+        }
+        model.addAttribute("agentName", agentName);
+
+        return "tickets/search";
+    }
+
     @GetMapping("/queue")
     public String ticketQueue(Model model, Authentication authentication) {
         String agentName = authentication != null ? authentication.getName() : "guest";
@@ -77,26 +138,55 @@ public class TicketController {
         return "tickets/queue";
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter stream() {
+        try {
+            return ticketStreamService.subscribe();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
     @GetMapping("/my-tickets")
-    public String myTickets(Model model, Authentication authentication) {
+    public String myTickets(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Model model,
+            Authentication authentication) {
         if (authentication == null) {
             return "redirect:/login";
         }
 
         String agentName = authentication.getName();
-        model.addAttribute("tickets", ticketService.getTicketsByAgent(agentName));
+        addPage(model, ticketService.getTicketsByAgentPage(agentName, cursor, size), cursor);
         model.addAttribute("agentName", agentName);
         model.addAttribute("agentStats", ticketService.getAgentStatistics(agentName));
 
         return "tickets/my-tickets";
     }
 
+    private static void addPage(Model model, TicketPage page, String cursor) {
+        model.addAttribute("tickets", page.getTickets());
+        if (page.hasNext()) {
+            model.addAttribute("nextPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .build().toUriString());
+        }
+        if (cursor != null) {
+            model.addAttribute("firstPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor")
+                    .build().toUriString());
+        }
+    }
+
     @GetMapping("/{id}")
     public String viewTicket(@PathVariable Long id, Model model, Authentication authentication) {
         String agentName = authentication != null ? authentication.getName() : "guest";
 
         Ticket ticket = ticketService.getTicketById(id);
         model.addAttribute("ticket", ticket);
+        model.addAttribute("history", ticketService.getTicketHistory(id));
         model.addAttribute("agentName", agentName);
 
         return "tickets/detail";
@@ -138,6 +228,108 @@ public class TicketController {
         }
     }
 
+    @GetMapping("/import")
+    public String importForm(Model model) {
+        model.addAttribute("formats", TicketFileFormat.values());
+        return "tickets/import";
+    }
+
+    @PostMapping("/import")
+    public String importTickets(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) TicketFileFormat format,
+            @RequestParam(defaultValue = "false") boolean sendEmails,
+            Model model) {
+
+        model.addAttribute("formats", TicketFileFormat.values());
+        TicketFileFormat resolved = format != null ? format
+                : TicketFileFormat.fromFilename(file.getOriginalFilename());
+        if (file.isEmpty() || resolved == null) {
+            model.addAttribute("errorMessage", file.isEmpty()
+                    ? "Please choose a file to import"
+                    : "Cannot tell the format of " + file.getOriginalFilename() + ", please select it");
+            return "tickets/import";
+        }
+
+        try {
+            TicketImportResult result = ticketImportService.importTickets(file.getInputStream(), resolved, sendEmails);
+            model.addAttribute("result", result);
+            model.addAttribute("successMessage", "Imported " + result.getImported() + " of "
+                    + result.getRowsRead() + " tickets from " + file.getOriginalFilename());
+        } catch (Exception e) {
+            log.error("Error importing tickets", e);
+            model.addAttribute("errorMessage", "Error importing tickets: " + e.getMessage());
+        }
+        return "tickets/import";
+    }
+
+    // Written on the request thread straight to the response, so there is no async timeout
+    // to outlast and nothing is buffered beyond the servlet's own response buffer
+    @GetMapping("/export")
+    public void exportTickets(
+            @RequestParam(defaultValue = "CSV") TicketFileFormat format,
+            @RequestParam(defaultValue = "false") boolean archived,
+            HttpServletResponse response) throws IOException {
+
+        String filename = "tickets-" + (archived ? "archived" : "active") + "-" + LocalDate.now()
+                + "." + format.getExtension();
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        ticketExportService.export(archived, format, response.getOutputStream());
+    }
+
+    @GetMapping("/bulk")
+    public String bulkForm(Model model) {
+        model.addAttribute("priorities", Ticket.Priority.values());
+        model.addAttribute("categories", Ticket.Category.values());
+        return "tickets/bulk";
+    }
+
+    @PostMapping("/bulk/close")
+    public String bulkClose(
+            @RequestParam(defaultValue = "7") int olderThanDays,
+            @RequestParam(required = false) Ticket.Priority priority,
+            @RequestParam(required = false) Ticket.Category category,
+            RedirectAttributes redirectAttributes) {
+
+        TicketBulkFilter filter = TicketBulkFilter.builder()
+                .resolvedBefore(ZonedDateTime.now().minusDays(Math.max(0, olderThanDays)))
+                .priority(priority)
+                .category(category)
+                .build();
+        return bulk(() -> ticketBulkService.closeResolved(filter), "Closed", redirectAttributes);
+    }
+
+    @PostMapping("/bulk/archive")
+    public String bulkArchive(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate resolvedBefore,
+            @RequestParam(required = false) Ticket.Priority priority,
+            @RequestParam(required = false) Ticket.Category category,
+            RedirectAttributes redirectAttributes) {
+
+        TicketBulkFilter filter = TicketBulkFilter.builder()
+                .resolvedBefore(resolvedBefore.atStartOfDay(ZoneId.systemDefault()))
+                .priority(priority)
+                .category(category)
+                .build();
+        return bulk(() -> ticketBulkService.archiveClosed(filter), "Archived", redirectAttributes);
+    }
+
+    private String bulk(Supplier<TicketBulkResult> operation, String verb,
+                        RedirectAttributes redirectAttributes) {
+        try {
+            TicketBulkResult result = operation.get();
+            redirectAttributes.addFlashAttribute("successMessage",
+                    verb + " " + result.getAffected() + " tickets.");
+        } catch (Exception e) {
+            log.error("Error running bulk operation", e);
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Bulk operation stopped, tickets changed before the error stay changed: " + e.getMessage());
+        }
+        return "redirect:/tickets/bulk";
+    }
+
     @PostMapping("/{id}/assign")
     public String assignTicket(
             @PathVariable Long id,
@@ -161,6 +353,28 @@ public class TicketController {
         }
     }
 
+    @PostMapping("/claim-next")
+    public String claimNextTicket(Authentication authentication, RedirectAttributes redirectAttributes) {
+        if (authentication == null) {
+            return "redirect:/login";
+        }
+
+        try {
+            Optional<Ticket> ticket = ticketService.claimNextTicket(authentication.getName());
+            if (ticket.isEmpty()) {
+                redirectAttributes.addFlashAttribute("successMessage", "The queue is empty - nothing left to claim.");
+                return "redirect:/tickets/queue";
+            }
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Ticket " + ticket.get().getTicketNumber() + " assigned to you!");
+            return "redirect:/tickets/" + ticket.get().getId();
+        } catch (Exception e) {
+            log.error("Error claiming next ticket", e);
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+            return "redirect:/tickets/queue";
+        }
+    }
+
     @PostMapping("/{id}/start")
     public String startProgress(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
@@ -0,0 +1,23 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+// Selects the tickets a bulk operation applies to; null fields do not filter
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketBulkFilter {
+
+    private ZonedDateTime resolvedBefore;
+
+    private Ticket.Priority priority;
+
+    private Ticket.Category category;
+}
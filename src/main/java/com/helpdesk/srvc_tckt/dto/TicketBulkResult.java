@@ -0,0 +1,22 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import com.helpdesk.srvc_tckt.entity.TicketTransition;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketBulkResult {
+
+    private TicketTransition transition;
+
+    // Tickets changed, summed over all committed chunks
+    private long affected;
+
+    // Transactions that changed at least one ticket
+    private int chunks;
+}
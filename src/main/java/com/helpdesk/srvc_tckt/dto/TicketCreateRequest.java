@@ -4,6 +4,7 @@ import com.helpdesk.srvc_tckt.entity.Ticket;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +17,7 @@ import lombok.NoArgsConstructor;
 public class TicketCreateRequest {
 
     @NotBlank(message = "Subject is required")
+    @Size(max = 255, message = "Subject must be at most 255 characters")
     private String subject;
 
     @NotBlank(message = "Description is required")
@@ -28,9 +30,11 @@ public class TicketCreateRequest {
     private Ticket.Category category;
 
     @NotBlank(message = "Your name is required")
+    @Size(max = 255, message = "Your name must be at most 255 characters")
     private String customerName;
 
     @NotBlank(message = "Your email is required")
     @Email(message = "Please provide a valid email address")
+    @Size(max = 255, message = "Your email must be at most 255 characters")
     private String customerEmail;
 }
@@ -0,0 +1,23 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+
+import java.time.ZonedDateTime;
+
+/**
+ * One row of a ticket's history in {@code ticket_events}.
+ *
+ * @param fromStatus status before the change, null when the ticket was created
+ * @param agent      agent the ticket was assigned to after the change, if any
+ * @param pod        replica that made the change
+ */
+public record TicketEventEntry(
+        Long ticketId,
+        TicketChangedEvent.Type type,
+        Ticket.Status fromStatus,
+        Ticket.Status toStatus,
+        String agent,
+        String pod,
+        ZonedDateTime occurredAt) {
+}
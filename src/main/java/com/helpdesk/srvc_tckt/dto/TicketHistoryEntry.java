@@ -0,0 +1,13 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import java.time.Duration;
+
+/**
+ * A {@link TicketEventEntry} as shown on the ticket detail page.
+ *
+ * @param timeInPreviousStatus how long the ticket had been in the status this event moved it
+ *                             out of, null when the event did not change the status or the
+ *                             change into that status was not recorded
+ */
+public record TicketHistoryEntry(TicketEventEntry event, Duration timeInPreviousStatus) {
+}
@@ -0,0 +1,32 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketImportResult {
+
+    private long rowsRead;
+
+    private long imported;
+
+    private long failed;
+
+    // Only the first app.import.max-reported-errors are kept
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    private boolean errorsTruncated;
+
+    // line is where the row starts in the uploaded file (1-based, header included)
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketPage {
+
+    private List<TicketSummary> tickets;
+
+    // Opaque token for the page after this one, null on the last page
+    private String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+
+import java.time.ZonedDateTime;
+
+/**
+ * An unassigned ticket as shown in the queue. Only the start of the description is read,
+ * enough to show {@link #PREVIEW_LENGTH} characters and tell whether there is more.
+ */
+public record TicketQueueEntry(
+        Long id,
+        String ticketNumber,
+        String subject,
+        String descriptionPreview,
+        Ticket.Status status,
+        Ticket.Priority priority,
+        Ticket.Category category,
+        String customerName,
+        String customerEmail,
+        ZonedDateTime createdAt) {
+
+    public static final int PREVIEW_LENGTH = 150;
+}
@@ -0,0 +1,27 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketSearchPage {
+
+    private String query;
+
+    // Best match first
+    private List<TicketSummary> results;
+
+    // 0-based
+    private int page;
+
+    private int size;
+
+    private boolean hasNext;
+}
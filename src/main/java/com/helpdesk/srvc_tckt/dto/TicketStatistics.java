@@ -0,0 +1,54 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketStatistics {
+
+    private long totalActive;
+
+    private long totalArchived;
+
+    @Builder.Default
+    private Map<Ticket.Status, Long> byStatus = new EnumMap<>(Ticket.Status.class);
+
+    @Builder.Default
+    private Map<Ticket.Priority, Long> byPriority = new EnumMap<>(Ticket.Priority.class);
+
+    @Builder.Default
+    private Map<Ticket.Category, Long> byCategory = new EnumMap<>(Ticket.Category.class);
+
+    @Builder.Default
+    private Map<String, Long> byPod = new HashMap<>();
+
+    // Shape expected by the dashboard and statistics templates; breakdowns are keyed by enum
+    // name so lookups like byStatus['NEW'] resolve
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalActive", totalActive);
+        stats.put("totalArchived", totalArchived);
+        stats.put("byStatus", byName(byStatus));
+        stats.put("byPriority", byName(byPriority));
+        stats.put("byCategory", byName(byCategory));
+        stats.put("byPod", byPod);
+        return stats;
+    }
+
+    private static Map<String, Long> byName(Map<? extends Enum<?>, Long> counts) {
+        Map<String, Long> named = new LinkedHashMap<>();
+        counts.forEach((key, count) -> named.put(key.name(), count));
+        return named;
+    }
+}
@@ -0,0 +1,20 @@
+package com.helpdesk.srvc_tckt.dto;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+
+import java.time.ZonedDateTime;
+
+// A ticket as shown in lists and search results: no description, never a managed entity
+public record TicketSummary(
+        Long id,
+        String ticketNumber,
+        String subject,
+        Ticket.Status status,
+        Ticket.Priority priority,
+        Ticket.Category category,
+        String customerName,
+        String customerEmail,
+        String assignedToAgent,
+        String handledByPod,
+        ZonedDateTime createdAt) {
+}
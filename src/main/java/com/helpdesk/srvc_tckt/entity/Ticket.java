@@ -14,13 +14,14 @@ import java.time.ZonedDateTime;
 @Entity
 @Table(name = "tickets")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_id_seq")
+    @SequenceGenerator(name = "tickets_id_seq", sequenceName = "tickets_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
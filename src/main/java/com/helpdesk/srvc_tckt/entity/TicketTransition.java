@@ -0,0 +1,86 @@
+package com.helpdesk.srvc_tckt.entity;
+
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The ticket workflow: which statuses each transition may start from, the status it moves to
+ * and the timestamp it records. The repository turns an entry into a single conditional
+ * UPDATE, and {@link #applyTo} mirrors that statement on an in-memory ticket.
+ */
+public enum TicketTransition {
+
+    ASSIGN("assign", Ticket.Status.ASSIGNED, EnumSet.of(Ticket.Status.NEW), Timestamp.ASSIGNED_AT),
+    START_PROGRESS("start progress on", Ticket.Status.IN_PROGRESS,
+            EnumSet.of(Ticket.Status.ASSIGNED, Ticket.Status.WAITING_CUSTOMER), null),
+    REQUEST_INFO("request info for", Ticket.Status.WAITING_CUSTOMER, EnumSet.of(Ticket.Status.IN_PROGRESS), null),
+    REOPEN("reopen", Ticket.Status.IN_PROGRESS,
+            EnumSet.of(Ticket.Status.WAITING_CUSTOMER, Ticket.Status.RESOLVED), null),
+    RESOLVE("resolve", Ticket.Status.RESOLVED, EnumSet.of(Ticket.Status.IN_PROGRESS), Timestamp.RESOLVED_AT),
+    CLOSE("close", Ticket.Status.CLOSED, EnumSet.of(Ticket.Status.RESOLVED), null),
+    ARCHIVE("archive", Ticket.Status.ARCHIVED, EnumSet.of(Ticket.Status.CLOSED), null);
+
+    public enum Timestamp {
+        ASSIGNED_AT, RESOLVED_AT
+    }
+
+    // Who takes the ticket; only used by ASSIGN
+    public record Assignee(String agent, String pod, String node) {
+    }
+
+    private final String verb;
+    private final Ticket.Status target;
+    private final Set<Ticket.Status> sources;
+    private final Timestamp timestamp;
+
+    TicketTransition(String verb, Ticket.Status target, Set<Ticket.Status> sources, Timestamp timestamp) {
+        this.verb = verb;
+        this.target = target;
+        this.sources = sources;
+        this.timestamp = timestamp;
+    }
+
+    public Ticket.Status getTarget() {
+        return target;
+    }
+
+    public Set<Ticket.Status> getSources() {
+        return sources;
+    }
+
+    // Null when the transition records no timestamp
+    public Timestamp getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean archives() {
+        return target == Ticket.Status.ARCHIVED;
+    }
+
+    public boolean assigns() {
+        return this == ASSIGN;
+    }
+
+    public String describeConflict(Ticket.Status current) {
+        return "Can only " + verb + " " + sources + " tickets. Current status: " + current;
+    }
+
+    public void applyTo(Ticket ticket, ZonedDateTime at, Assignee assignee) {
+        ticket.setStatus(target);
+        if (timestamp == Timestamp.ASSIGNED_AT) {
+            ticket.setAssignedAt(at);
+        } else if (timestamp == Timestamp.RESOLVED_AT) {
+            ticket.setResolvedAt(at);
+        }
+        if (archives()) {
+            ticket.setArchived(true);
+        }
+        if (assigns()) {
+            ticket.setAssignedToAgent(assignee.agent());
+            ticket.setHandledByPod(assignee.pod());
+            ticket.setHandledByNode(assignee.node());
+        }
+        ticket.setVersion(ticket.getVersion() + 1);
+    }
+}
@@ -0,0 +1,8 @@
+package com.helpdesk.srvc_tckt.event;
+
+/**
+ * Published when an email is written to the outbox, so the dispatcher can send it right
+ * after the transaction commits instead of waiting for its next poll.
+ */
+public record EmailQueuedEvent(Long outboxId) {
+}
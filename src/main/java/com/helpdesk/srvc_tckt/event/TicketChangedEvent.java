@@ -0,0 +1,26 @@
+package com.helpdesk.srvc_tckt.event;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Published by TicketService for every ticket write. Listeners that must only observe
+ * committed state use {@code @TransactionalEventListener}.
+ *
+ * @param previous   state before the change, null for newly created tickets
+ * @param current    state after the change
+ * @param occurredAt when the change was made, not when a listener got to see it
+ */
+public record TicketChangedEvent(Type type, Ticket ticket, TicketSnapshot previous, TicketSnapshot current,
+                                 ZonedDateTime occurredAt) {
+
+    public enum Type {
+        CREATED, UPDATED, ASSIGNED, STARTED, INFO_REQUESTED, REOPENED, RESOLVED, CLOSED, ARCHIVED
+    }
+
+    // occurredAt is the time the change wrote to the ticket, e.g. assignedAt for an assignment
+    public static TicketChangedEvent of(Type type, Ticket ticket, TicketSnapshot previous, ZonedDateTime occurredAt) {
+        return new TicketChangedEvent(type, ticket, previous, TicketSnapshot.of(ticket), occurredAt);
+    }
+}
@@ -0,0 +1,23 @@
+package com.helpdesk.srvc_tckt.event;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+
+/**
+ * The fields of a ticket that aggregate views are keyed on, captured at one point in time.
+ */
+public record TicketSnapshot(
+        Ticket.Status status,
+        Ticket.Priority priority,
+        Ticket.Category category,
+        String handledByPod,
+        boolean archived) {
+
+    public static TicketSnapshot of(Ticket ticket) {
+        return new TicketSnapshot(
+                ticket.getStatus(),
+                ticket.getPriority(),
+                ticket.getCategory(),
+                ticket.getHandledByPod(),
+                Boolean.TRUE.equals(ticket.getArchived()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * The database the application is connected to, for the few queries that need vendor-specific SQL.
+ * PostgreSQL runs in production; H2 backs the local profile and tests.
+ */
+@Slf4j
+public enum DatabasePlatform {
+
+    POSTGRESQL,
+    H2;
+
+    public static DatabasePlatform detect(DataSource dataSource) {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            DatabasePlatform platform = "PostgreSQL".equalsIgnoreCase(productName) ? POSTGRESQL : H2;
+            log.info("Detected database platform {} ({})", platform, productName);
+            return platform;
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect database platform, falling back to portable SQL", e);
+            return H2;
+        }
+    }
+}
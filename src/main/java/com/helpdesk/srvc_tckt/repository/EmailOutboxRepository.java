@@ -0,0 +1,56 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import com.helpdesk.srvc_tckt.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Lock a batch of due emails; rows held by another replica's claim are skipped.
+    // An expired lease counts as unclaimed, so emails of a crashed pod are picked up again.
+    // H2 locks every due row before the LIMIT applies, so there one claim holds them all.
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE status = 'PENDING' AND next_attempt_at <= :now
+              AND (locked_until IS NULL OR locked_until < :now)
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> lockDue(ZonedDateTime now, int limit);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.lockedBy = :owner, e.lockedUntil = :until WHERE e.id IN :ids")
+    int lease(Collection<Long> ids, String owner, ZonedDateTime until);
+
+    // The lockedBy check keeps a replica whose lease already expired from overwriting the new owner
+    @Modifying
+    @Query("""
+            UPDATE EmailOutbox e SET e.status = 'SENT', e.sentAt = :sentAt, e.attempts = e.attempts + 1,
+                   e.lockedBy = NULL, e.lockedUntil = NULL, e.lastError = NULL
+            WHERE e.id IN :ids AND e.lockedBy = :owner
+            """)
+    int markSent(Collection<Long> ids, String owner, ZonedDateTime sentAt);
+
+    @Modifying
+    @Query("""
+            UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt,
+                   e.lastError = :error, e.lockedBy = NULL, e.lockedUntil = NULL
+            WHERE e.id = :id AND e.lockedBy = :owner
+            """)
+    int markFailed(Long id, String owner, EmailOutbox.Status status, int attempts,
+                   ZonedDateTime nextAttemptAt, String error);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = 'SENT' AND e.sentAt < :before")
+    int deleteSentBefore(ZonedDateTime before);
+
+    long countByStatus(EmailOutbox.Status status);
+}
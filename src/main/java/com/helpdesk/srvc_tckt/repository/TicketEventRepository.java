@@ -0,0 +1,65 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import com.helpdesk.srvc_tckt.dto.TicketEventEntry;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC access to {@code ticket_events}. Rows are only ever inserted, in batches, so
+ * there is no entity and nothing for Hibernate to track.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TicketEventRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO ticket_events (ticket_id, event_type, from_status, to_status, agent, pod, occurred_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String FIND_BY_TICKET_SQL = """
+            SELECT ticket_id, event_type, from_status, to_status, agent, pod, occurred_at
+            FROM ticket_events
+            WHERE ticket_id = ?
+            ORDER BY occurred_at, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // One JDBC batch; the caller decides how many events go into it
+    public void insertAll(List<TicketEventEntry> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.ticketId());
+            ps.setString(2, event.type().name());
+            if (event.fromStatus() != null) {
+                ps.setString(3, event.fromStatus().name());
+            } else {
+                ps.setNull(3, Types.VARCHAR);
+            }
+            ps.setString(4, event.toStatus().name());
+            ps.setString(5, event.agent());
+            ps.setString(6, event.pod());
+            ps.setObject(7, event.occurredAt().toOffsetDateTime());
+        });
+    }
+
+    public List<TicketEventEntry> findByTicketId(Long ticketId) {
+        return jdbcTemplate.query(FIND_BY_TICKET_SQL, (rs, rowNum) -> {
+            String fromStatus = rs.getString("from_status");
+            return new TicketEventEntry(
+                    rs.getLong("ticket_id"),
+                    TicketChangedEvent.Type.valueOf(rs.getString("event_type")),
+                    fromStatus != null ? Ticket.Status.valueOf(fromStatus) : null,
+                    Ticket.Status.valueOf(rs.getString("to_status")),
+                    rs.getString("agent"),
+                    rs.getString("pod"),
+                    TicketRowMapper.zoned(rs, "occurred_at"));
+        }, ticketId);
+    }
+}
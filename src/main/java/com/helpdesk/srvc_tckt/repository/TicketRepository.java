@@ -1,65 +1,76 @@
 package com.helpdesk.srvc_tckt.repository;
 
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
 import com.helpdesk.srvc_tckt.entity.Ticket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketRepositoryCustom {
 
-    // Find tickets by status
-    List<Ticket> findByStatusAndArchivedFalseOrderByCreatedAtDesc(Ticket.Status status);
+    // Every active ticket assigned to an agent, e.g. as ResolutionTimes for the agent statistics;
+    // lists of them are paged with findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDescIdDesc
+    <T> List<T> findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDesc(String agentName, Class<T> type);
 
-    // Find tickets by priority
-    List<Ticket> findByPriorityAndArchivedFalseOrderByCreatedAtDesc(Ticket.Priority priority);
+    // For exports: rows arrive fetch-size at a time and are not dirty-checked. Must be consumed
+    // inside a transaction and closed; the caller detaches each row once written.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Ticket t WHERE t.archived = :archived ORDER BY t.id")
+    Stream<Ticket> streamByArchived(boolean archived);
 
-    // Find tickets by category
-    List<Ticket> findByCategoryAndArchivedFalseOrderByCreatedAtDesc(Ticket.Category category);
+    // Keyset-paginated variants - ordered by (created_at, id) so the cursor is unique. Summaries
+    // are built straight from the selected columns, so no description is read and nothing is
+    // added to the persistence context.
+    Window<TicketSummary> findByArchivedFalseOrderByCreatedAtDescIdDesc(ScrollPosition position, Limit limit);
 
-    // Find tickets assigned to an agent
-    List<Ticket> findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDesc(String agentName);
+    Window<TicketSummary> findByStatusAndArchivedFalseOrderByCreatedAtDescIdDesc(
+            Ticket.Status status, ScrollPosition position, Limit limit);
 
-    // Find all active (non-archived) tickets
-    List<Ticket> findByArchivedFalseOrderByCreatedAtDesc();
+    Window<TicketSummary> findByPriorityAndArchivedFalseOrderByCreatedAtDescIdDesc(
+            Ticket.Priority priority, ScrollPosition position, Limit limit);
 
-    // Find archived tickets
-    List<Ticket> findByArchivedTrueOrderByCreatedAtDesc();
+    Window<TicketSummary> findByCategoryAndArchivedFalseOrderByCreatedAtDescIdDesc(
+            Ticket.Category category, ScrollPosition position, Limit limit);
+
+    Window<TicketSummary> findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDescIdDesc(
+            String agentName, ScrollPosition position, Limit limit);
 
     // Find tickets by customer email
     List<Ticket> findByCustomerEmailOrderByCreatedAtDesc(String email);
 
-    // Count tickets by status
-    long countByStatusAndArchivedFalse(Ticket.Status status);
-
-    // Count tickets by priority
-    long countByPriorityAndArchivedFalse(Ticket.Priority priority);
-
-    // Count tickets by category
-    long countByCategoryAndArchivedFalse(Ticket.Category category);
-
-    // Count tickets by agent
-    long countByAssignedToAgentAndArchivedFalse(String agentName);
-
-    // Statistics query - count by status
-    @Query("SELECT t.status, COUNT(t) FROM Ticket t WHERE t.archived = false GROUP BY t.status")
-    List<Object[]> countByStatusGrouped();
-
-    // Statistics query - count by priority
-    @Query("SELECT t.priority, COUNT(t) FROM Ticket t WHERE t.archived = false GROUP BY t.priority")
-    List<Object[]> countByPriorityGrouped();
-
-    // Statistics query - count by category
-    @Query("SELECT t.category, COUNT(t) FROM Ticket t WHERE t.archived = false GROUP BY t.category")
-    List<Object[]> countByCategoryGrouped();
-
-    // Statistics query - count by pod
-    @Query("SELECT t.handledByPod, COUNT(t) FROM Ticket t WHERE t.archived = false AND t.handledByPod IS NOT NULL GROUP BY t.handledByPod")
-    List<Object[]> countByPodGrouped();
-
-    // Find unassigned tickets (NEW status)
-    List<Ticket> findByStatusAndArchivedFalseOrderByPriorityDescCreatedAtAsc(Ticket.Status status);
+    // Lock the highest-priority, oldest NEW ticket; rows locked by other claimers are skipped,
+    // so concurrent callers never wait on each other. Same syntax on PostgreSQL and H2 2.x.
+    // priority_rank (URGENT 0 .. LOW 3) is set by the database, a generated column on H2 and a
+    // trigger on PostgreSQL, so idx_tickets_queue gives the order.
+    @Query(value = """
+            SELECT id FROM tickets
+            WHERE status = 'NEW' AND archived = FALSE
+            ORDER BY priority_rank, created_at, id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<Long> lockNextUnassignedId();
+
+    // What agent statistics need of a ticket
+    record ResolutionTimes(Ticket.Status status, ZonedDateTime assignedAt, ZonedDateTime resolvedAt) {
+    }
+
+    // Used to explain a rejected transition
+    @Query("SELECT t.status FROM Ticket t WHERE t.id = :id")
+    Optional<Ticket.Status> findStatusById(Long id);
 }
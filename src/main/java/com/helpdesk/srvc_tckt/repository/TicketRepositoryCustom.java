@@ -0,0 +1,72 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import com.helpdesk.srvc_tckt.dto.TicketBulkFilter;
+import com.helpdesk.srvc_tckt.dto.TicketQueueEntry;
+import com.helpdesk.srvc_tckt.dto.TicketStatistics;
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.entity.TicketTransition;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public interface TicketRepositoryCustom {
+
+    // Totals and per-status/priority/category/pod breakdowns in a single round trip
+    TicketStatistics aggregateStatistics();
+
+    // Runs the transition as one conditional UPDATE and returns the row as it was before the
+    // update; empty when the ticket does not exist or is not in one of the source statuses.
+    // The assignee is only read for TicketTransition.ASSIGN.
+    Optional<Ticket> transition(Long id, TicketTransition transition, ZonedDateTime at,
+                                TicketTransition.Assignee assignee);
+
+    // Applies the transition to up to limit tickets in its source statuses that match the filter,
+    // skipping rows locked by other transactions, and returns them as they were before the
+    // update. Not for TicketTransition.ASSIGN.
+    List<Ticket> transitionMatching(TicketTransition transition, TicketBulkFilter filter, ZonedDateTime at,
+                                    int limit);
+
+    // Moves the ticket to tickets_archive if it is flagged archived; returns the rows moved (0 or 1)
+    int moveToArchive(Long id);
+
+    // Same for a list of tickets, in one statement
+    int moveToArchive(List<Long> ids);
+
+    // Moves up to limit archived tickets to tickets_archive, skipping rows locked by other
+    // transactions; returns the number moved
+    int moveArchivedChunk(int limit);
+
+    Optional<Ticket> findArchivedById(Long id);
+
+    // Every row of tickets_archive by id, read from a cursor; consume inside a transaction and close
+    Stream<Ticket> streamArchived();
+
+    // NEW tickets in the order they are claimed: highest priority, then oldest first
+    List<TicketQueueEntry> findQueue();
+
+    // How many NEW tickets there are per priority and when the oldest of each was created;
+    // priorities with an empty queue are left out
+    List<QueueDepth> findQueueDepth();
+
+    // Live tickets matching a web-style query ("quoted phrase", -excluded, or), best ranked first
+    // among the newest matches up to candidates. PostgreSQL only; SearchConfig never wires it
+    // up elsewhere, so any other database fails with IllegalStateException
+    List<TicketSummary> searchSummaries(String query, int candidates, int offset, int limit);
+
+    // In no particular order; ids that are not live tickets are left out
+    List<TicketSummary> findSummariesByIds(Collection<Long> ids);
+
+    // Reads the text of every live ticket from a cursor, one row at a time
+    void scanSearchText(Consumer<SearchText> consumer);
+
+    record SearchText(Long id, String subject, String description) {
+    }
+
+    record QueueDepth(Ticket.Priority priority, long tickets, ZonedDateTime oldestCreatedAt) {
+    }
+}
@@ -0,0 +1,414 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import com.helpdesk.srvc_tckt.dto.TicketBulkFilter;
+import com.helpdesk.srvc_tckt.dto.TicketQueueEntry;
+import com.helpdesk.srvc_tckt.dto.TicketStatistics;
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.entity.TicketTransition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hand-written SQL for the queries Spring Data cannot derive. Every statement returns
+ * plain columns so no {@link Ticket} entities are hydrated or attached to the persistence
+ * context.
+ */
+@RequiredArgsConstructor
+public class TicketRepositoryImpl implements TicketRepositoryCustom {
+
+    // One scan of the table; GROUPING() tells which set a row belongs to
+    private static final String STATISTICS_GROUPING_SETS_SQL = """
+            SELECT CASE WHEN GROUPING(status) = 0 THEN 'status'
+                        WHEN GROUPING(priority) = 0 THEN 'priority'
+                        WHEN GROUPING(category) = 0 THEN 'category'
+                        WHEN GROUPING(handled_by_pod) = 0 THEN 'pod'
+                        ELSE 'total' END AS dimension,
+                   archived,
+                   COALESCE(status, priority, category, handled_by_pod) AS bucket,
+                   COUNT(*) AS cnt
+            FROM tickets
+            GROUP BY GROUPING SETS ((archived), (archived, status), (archived, priority),
+                                    (archived, category), (archived, handled_by_pod))
+            UNION ALL
+            SELECT 'total', TRUE, NULL, COUNT(*) FROM tickets_archive
+            """;
+
+    // H2 has no GROUPING SETS; same result shape, still a single statement
+    private static final String STATISTICS_UNION_SQL = """
+            SELECT 'total' AS dimension, archived, CAST(NULL AS VARCHAR(255)) AS bucket, COUNT(*) AS cnt
+            FROM tickets GROUP BY archived
+            UNION ALL
+            SELECT 'status', archived, status, COUNT(*) FROM tickets WHERE archived = FALSE GROUP BY archived, status
+            UNION ALL
+            SELECT 'priority', archived, priority, COUNT(*) FROM tickets WHERE archived = FALSE GROUP BY archived, priority
+            UNION ALL
+            SELECT 'category', archived, category, COUNT(*) FROM tickets WHERE archived = FALSE GROUP BY archived, category
+            UNION ALL
+            SELECT 'pod', archived, handled_by_pod, COUNT(*) FROM tickets
+            WHERE archived = FALSE AND handled_by_pod IS NOT NULL GROUP BY archived, handled_by_pod
+            UNION ALL
+            SELECT 'total', TRUE, NULL, COUNT(*) FROM tickets_archive
+            """;
+
+    // Both return the pre-update row. PostgreSQL locks it in the CTE so the returned status is
+    // the one the UPDATE actually replaced; H2 exposes it directly through its OLD TABLE delta.
+    private static final Map<TicketTransition, String> POSTGRESQL_TRANSITION_SQL =
+            transitionStatements("""
+                    WITH previous AS (
+                        SELECT * FROM tickets WHERE id = ? AND status IN (%2$s) FOR UPDATE
+                    )
+                    UPDATE tickets SET %1$s FROM previous WHERE tickets.id = previous.id
+                    RETURNING previous.*
+                    """);
+
+    private static final Map<TicketTransition, String> H2_TRANSITION_SQL =
+            transitionStatements("""
+                    SELECT * FROM OLD TABLE (
+                        UPDATE tickets SET %1$s WHERE id = ? AND status IN (%2$s)
+                    )
+                    """);
+
+    // Bulk variants: %3$s is the filter. PostgreSQL skips rows other transactions hold; H2 limits
+    // the UPDATE directly (see the chunk statements below) and waits on locked rows instead.
+    // No ORDER BY: changed rows stop matching, so chunks need no order, and sorting every
+    // matching row per chunk would cost more than the UPDATE itself.
+    private static final String POSTGRESQL_TRANSITION_MATCHING_SQL = """
+            WITH previous AS (
+                SELECT * FROM tickets WHERE status IN (%2$s) AND %3$s
+                LIMIT ? FOR UPDATE SKIP LOCKED
+            )
+            UPDATE tickets SET %1$s FROM previous WHERE tickets.id = previous.id
+            RETURNING previous.*
+            """;
+
+    private static final String H2_TRANSITION_MATCHING_SQL = """
+            SELECT * FROM OLD TABLE (
+                UPDATE tickets SET %1$s WHERE status IN (%2$s) AND %3$s FETCH FIRST ? ROWS ONLY
+            )
+            """;
+
+    private static final String ARCHIVE_COLUMNS = """
+            id, ticket_number, subject, description, priority, category, status, customer_name,
+            customer_email, assigned_to_agent, handled_by_pod, handled_by_node, created_at,
+            assigned_at, resolved_at, archived, version""";
+
+    // Both delete the rows matched by %1$s from tickets and insert them into tickets_archive in
+    // one statement
+    private static final String POSTGRESQL_MOVE_TO_ARCHIVE_SQL = """
+            WITH moved AS (
+                DELETE FROM tickets WHERE %1$s
+                RETURNING *
+            )
+            INSERT INTO tickets_archive (%2$s, archived_at)
+            SELECT %2$s, CURRENT_TIMESTAMP FROM moved
+            """;
+
+    private static final String H2_MOVE_TO_ARCHIVE_SQL = """
+            INSERT INTO tickets_archive (%2$s, archived_at)
+            SELECT %2$s, CURRENT_TIMESTAMP FROM OLD TABLE (DELETE FROM tickets WHERE %1$s)
+            """;
+
+    private static final String MOVE_ONE = "id = ? AND archived = TRUE";
+
+    // Rows other sweepers hold are skipped on PostgreSQL. H2 evaluates an IN (subquery) per
+    // row, so it limits the DELETE directly and waits on locked rows instead.
+    private static final String POSTGRESQL_MOVE_CHUNK =
+            "id IN (SELECT id FROM tickets WHERE archived = TRUE ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String H2_MOVE_CHUNK = "archived = TRUE FETCH FIRST ? ROWS ONLY";
+
+    private static final int ARCHIVE_FETCH_SIZE = 500;
+
+    // websearch_to_tsquery never fails on user input. The GIN index on ticket_search_vector finds
+    // the matches, but ORDER BY ts_rank has to rank every one of them before LIMIT applies, so the
+    // ranking only sees the newest matches up to the candidate limit. Those are the only rows
+    // whose vector is computed again.
+    private static final String POSTGRESQL_SEARCH_SQL = """
+            SELECT %1$s
+            FROM (SELECT %1$s, ticket_search_vector(subject, description) AS search_vector, query
+                  FROM tickets, websearch_to_tsquery('english', ?) AS query
+                  WHERE archived = FALSE AND ticket_search_vector(subject, description) @@ query
+                  ORDER BY id DESC
+                  LIMIT ?) AS candidates
+            ORDER BY ts_rank(search_vector, query) DESC, id DESC
+            LIMIT ? OFFSET ?
+            """.formatted(TicketSummaryRowMapper.COLUMNS);
+
+    private static final int SEARCH_TEXT_FETCH_SIZE = 500;
+
+    // Same order as lockNextUnassignedId, served by idx_tickets_queue. One character more than
+    // the preview shows, so the page knows whether to add an ellipsis.
+    private static final String QUEUE_SQL = """
+            SELECT id, ticket_number, subject, SUBSTRING(description FROM 1 FOR %d) AS description_preview,
+                   status, priority, category, customer_name, customer_email, created_at
+            FROM tickets
+            WHERE status = 'NEW' AND archived = FALSE
+            ORDER BY priority_rank, created_at, id
+            """.formatted(TicketQueueEntry.PREVIEW_LENGTH + 1);
+
+    // Index-only on idx_tickets_active_status_priority
+    private static final String QUEUE_DEPTH_SQL = """
+            SELECT priority, COUNT(*) AS cnt, MIN(created_at) AS oldest_created_at
+            FROM tickets
+            WHERE status = 'NEW' AND archived = FALSE
+            GROUP BY priority
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @Override
+    public TicketStatistics aggregateStatistics() {
+        String sql = databasePlatform == DatabasePlatform.POSTGRESQL
+                ? STATISTICS_GROUPING_SETS_SQL
+                : STATISTICS_UNION_SQL;
+
+        TicketStatistics stats = new TicketStatistics();
+        jdbcTemplate.query(sql, rs -> {
+            String dimension = rs.getString("dimension");
+            boolean archived = rs.getBoolean("archived");
+            String bucket = rs.getString("bucket");
+            long count = rs.getLong("cnt");
+
+            if ("total".equals(dimension)) {
+                if (archived) {
+                    // Archived rows still waiting in tickets plus those in tickets_archive
+                    stats.setTotalArchived(stats.getTotalArchived() + count);
+                } else {
+                    stats.setTotalActive(count);
+                }
+                return;
+            }
+            // Breakdowns only cover active tickets
+            if (archived || bucket == null) {
+                return;
+            }
+            switch (dimension) {
+                case "status" -> stats.getByStatus().put(Ticket.Status.valueOf(bucket), count);
+                case "priority" -> stats.getByPriority().put(Ticket.Priority.valueOf(bucket), count);
+                case "category" -> stats.getByCategory().put(Ticket.Category.valueOf(bucket), count);
+                case "pod" -> stats.getByPod().put(bucket, count);
+                default -> throw new IllegalStateException("Unexpected statistics dimension: " + dimension);
+            }
+        });
+        return stats;
+    }
+
+    @Override
+    public Optional<Ticket> transition(Long id, TicketTransition transition, ZonedDateTime at,
+                                       TicketTransition.Assignee assignee) {
+        List<Object> args = new ArrayList<>();
+        String sql;
+        if (databasePlatform == DatabasePlatform.POSTGRESQL) {
+            sql = POSTGRESQL_TRANSITION_SQL.get(transition);
+            args.add(id);
+            args.addAll(setArguments(transition, at, assignee));
+        } else {
+            sql = H2_TRANSITION_SQL.get(transition);
+            args.addAll(setArguments(transition, at, assignee));
+            args.add(id);
+        }
+
+        return jdbcTemplate.query(sql, TicketRowMapper.INSTANCE, args.toArray()).stream().findFirst();
+    }
+
+    @Override
+    public List<Ticket> transitionMatching(TicketTransition transition, TicketBulkFilter filter, ZonedDateTime at,
+                                           int limit) {
+        if (transition.assigns()) {
+            throw new IllegalArgumentException("Cannot assign tickets in bulk");
+        }
+
+        StringJoiner where = new StringJoiner(" AND ").setEmptyValue("TRUE");
+        List<Object> filterArgs = new ArrayList<>();
+        if (filter.getResolvedBefore() != null) {
+            where.add("resolved_at < ?");
+            filterArgs.add(filter.getResolvedBefore().toOffsetDateTime());
+        }
+        if (filter.getPriority() != null) {
+            where.add("priority = ?");
+            filterArgs.add(filter.getPriority().name());
+        }
+        if (filter.getCategory() != null) {
+            where.add("category = ?");
+            filterArgs.add(filter.getCategory().name());
+        }
+
+        List<Object> args = new ArrayList<>();
+        String sql;
+        if (databasePlatform == DatabasePlatform.POSTGRESQL) {
+            sql = POSTGRESQL_TRANSITION_MATCHING_SQL;
+            args.addAll(filterArgs);
+            args.add(limit);
+            args.addAll(setArguments(transition, at, null));
+        } else {
+            sql = H2_TRANSITION_MATCHING_SQL;
+            args.addAll(setArguments(transition, at, null));
+            args.addAll(filterArgs);
+            args.add(limit);
+        }
+
+        return jdbcTemplate.query(sql.formatted(setClause(transition), sources(transition), where),
+                TicketRowMapper.INSTANCE, args.toArray());
+    }
+
+    @Override
+    public int moveToArchive(Long id) {
+        return jdbcTemplate.update(moveToArchiveSql(MOVE_ONE), id);
+    }
+
+    @Override
+    public int moveToArchive(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update(moveToArchiveSql("archived = TRUE AND id IN (" + placeholders + ")"),
+                ids.toArray());
+    }
+
+    @Override
+    public int moveArchivedChunk(int limit) {
+        String chunk = databasePlatform == DatabasePlatform.POSTGRESQL ? POSTGRESQL_MOVE_CHUNK : H2_MOVE_CHUNK;
+        return jdbcTemplate.update(moveToArchiveSql(chunk), limit);
+    }
+
+    @Override
+    public Optional<Ticket> findArchivedById(Long id) {
+        return jdbcTemplate.query("SELECT * FROM tickets_archive WHERE id = ?", TicketRowMapper.INSTANCE, id)
+                .stream().findFirst();
+    }
+
+    @Override
+    public Stream<Ticket> streamArchived() {
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT * FROM tickets_archive ORDER BY id");
+            statement.setFetchSize(ARCHIVE_FETCH_SIZE);
+            return statement;
+        }, TicketRowMapper.INSTANCE);
+    }
+
+    @Override
+    public List<TicketQueueEntry> findQueue() {
+        return jdbcTemplate.query(QUEUE_SQL, (rs, rowNum) -> new TicketQueueEntry(
+                rs.getLong("id"),
+                rs.getString("ticket_number"),
+                rs.getString("subject"),
+                rs.getString("description_preview"),
+                Ticket.Status.valueOf(rs.getString("status")),
+                Ticket.Priority.valueOf(rs.getString("priority")),
+                Ticket.Category.valueOf(rs.getString("category")),
+                rs.getString("customer_name"),
+                rs.getString("customer_email"),
+                TicketRowMapper.zoned(rs, "created_at")));
+    }
+
+    @Override
+    public List<QueueDepth> findQueueDepth() {
+        return jdbcTemplate.query(QUEUE_DEPTH_SQL, (rs, rowNum) -> new QueueDepth(
+                Ticket.Priority.valueOf(rs.getString("priority")),
+                rs.getLong("cnt"),
+                TicketRowMapper.zoned(rs, "oldest_created_at")));
+    }
+
+    @Override
+    public List<TicketSummary> searchSummaries(String query, int candidates, int offset, int limit) {
+        if (databasePlatform != DatabasePlatform.POSTGRESQL) {
+            throw new IllegalStateException("Full-text search in SQL needs PostgreSQL, not " + databasePlatform);
+        }
+        return jdbcTemplate.query(POSTGRESQL_SEARCH_SQL, TicketSummaryRowMapper.INSTANCE,
+                query, candidates, limit, offset);
+    }
+
+    @Override
+    public List<TicketSummary> findSummariesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query("SELECT " + TicketSummaryRowMapper.COLUMNS
+                        + " FROM tickets WHERE archived = FALSE AND id IN (" + placeholders + ")",
+                TicketSummaryRowMapper.INSTANCE, ids.toArray());
+    }
+
+    @Override
+    public void scanSearchText(Consumer<SearchText> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, subject, description FROM tickets WHERE archived = FALSE");
+            statement.setFetchSize(SEARCH_TEXT_FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            consumer.accept(new SearchText(rs.getLong("id"), rs.getString("subject"), rs.getString("description")));
+        });
+    }
+
+    private String moveToArchiveSql(String where) {
+        String template = databasePlatform == DatabasePlatform.POSTGRESQL
+                ? POSTGRESQL_MOVE_TO_ARCHIVE_SQL
+                : H2_MOVE_TO_ARCHIVE_SQL;
+        return template.formatted(where, ARCHIVE_COLUMNS);
+    }
+
+    private static Map<TicketTransition, String> transitionStatements(String template) {
+        Map<TicketTransition, String> statements = new EnumMap<>(TicketTransition.class);
+        for (TicketTransition transition : TicketTransition.values()) {
+            statements.put(transition, template.formatted(setClause(transition), sources(transition)));
+        }
+        return statements;
+    }
+
+    private static String sources(TicketTransition transition) {
+        return transition.getSources().stream()
+                .map(status -> "'" + status.name() + "'")
+                .collect(Collectors.joining(", "));
+    }
+
+    // Keep in step with setArguments and TicketTransition.applyTo
+    private static String setClause(TicketTransition transition) {
+        StringJoiner set = new StringJoiner(", ");
+        set.add("status = '" + transition.getTarget().name() + "'");
+        if (transition.getTimestamp() == TicketTransition.Timestamp.ASSIGNED_AT) {
+            set.add("assigned_at = ?");
+        } else if (transition.getTimestamp() == TicketTransition.Timestamp.RESOLVED_AT) {
+            set.add("resolved_at = ?");
+        }
+        if (transition.archives()) {
+            set.add("archived = TRUE");
+        }
+        if (transition.assigns()) {
+            set.add("assigned_to_agent = ?").add("handled_by_pod = ?").add("handled_by_node = ?");
+        }
+        set.add("version = tickets.version + 1");
+        return set.toString();
+    }
+
+    private static List<Object> setArguments(TicketTransition transition, ZonedDateTime at,
+                                             TicketTransition.Assignee assignee) {
+        List<Object> args = new ArrayList<>();
+        if (transition.getTimestamp() != null) {
+            args.add(at.toOffsetDateTime());
+        }
+        if (transition.assigns()) {
+            args.add(assignee.agent());
+            args.add(assignee.pod());
+            args.add(assignee.node());
+        }
+        return args;
+    }
+}
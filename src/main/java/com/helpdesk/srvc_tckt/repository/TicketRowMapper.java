@@ -0,0 +1,50 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Maps a full {@code tickets} row for statements that bypass Hibernate. The result is a plain
+ * detached object, never attached to the persistence context.
+ */
+final class TicketRowMapper implements RowMapper<Ticket> {
+
+    static final TicketRowMapper INSTANCE = new TicketRowMapper();
+
+    private TicketRowMapper() {
+    }
+
+    @Override
+    public Ticket mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return Ticket.builder()
+                .id(rs.getLong("id"))
+                .ticketNumber(rs.getString("ticket_number"))
+                .subject(rs.getString("subject"))
+                .description(rs.getString("description"))
+                .priority(Ticket.Priority.valueOf(rs.getString("priority")))
+                .category(Ticket.Category.valueOf(rs.getString("category")))
+                .status(Ticket.Status.valueOf(rs.getString("status")))
+                .customerName(rs.getString("customer_name"))
+                .customerEmail(rs.getString("customer_email"))
+                .assignedToAgent(rs.getString("assigned_to_agent"))
+                .handledByPod(rs.getString("handled_by_pod"))
+                .handledByNode(rs.getString("handled_by_node"))
+                .createdAt(zoned(rs, "created_at"))
+                .assignedAt(zoned(rs, "assigned_at"))
+                .resolvedAt(zoned(rs, "resolved_at"))
+                .archived(rs.getBoolean("archived"))
+                .version(rs.getLong("version"))
+                .build();
+    }
+
+    static ZonedDateTime zoned(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.atZoneSameInstant(ZoneId.systemDefault()) : null;
+    }
+}
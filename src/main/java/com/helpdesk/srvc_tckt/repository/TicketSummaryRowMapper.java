@@ -0,0 +1,40 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the {@link #COLUMNS} of a {@code tickets} row to a {@link TicketSummary}, leaving the
+ * description in the database.
+ */
+final class TicketSummaryRowMapper implements RowMapper<TicketSummary> {
+
+    static final String COLUMNS =
+            "id, ticket_number, subject, status, priority, category, customer_name, customer_email, assigned_to_agent, "
+                    + "handled_by_pod, created_at";
+
+    static final TicketSummaryRowMapper INSTANCE = new TicketSummaryRowMapper();
+
+    private TicketSummaryRowMapper() {
+    }
+
+    @Override
+    public TicketSummary mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new TicketSummary(
+                rs.getLong("id"),
+                rs.getString("ticket_number"),
+                rs.getString("subject"),
+                Ticket.Status.valueOf(rs.getString("status")),
+                Ticket.Priority.valueOf(rs.getString("priority")),
+                Ticket.Category.valueOf(rs.getString("category")),
+                rs.getString("customer_name"),
+                rs.getString("customer_email"),
+                rs.getString("assigned_to_agent"),
+                rs.getString("handled_by_pod"),
+                TicketRowMapper.zoned(rs, "created_at"));
+    }
+}
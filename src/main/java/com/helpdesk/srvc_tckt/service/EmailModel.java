@@ -0,0 +1,55 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+
+import java.util.function.Function;
+
+/**
+ * The values an email template can reference as {@code {{name}}} placeholders.
+ *
+ * @param previousStatus only set for status update emails
+ * @param comment        optional agent comment for status update emails
+ */
+public record EmailModel(Ticket ticket, Ticket.Status previousStatus, String comment) {
+
+    public static EmailModel of(Ticket ticket) {
+        return new EmailModel(ticket, null, null);
+    }
+
+    enum Variable {
+        CUSTOMER_NAME("customerName", model -> model.ticket().getCustomerName()),
+        TICKET_NUMBER("ticketNumber", model -> model.ticket().getTicketNumber()),
+        SUBJECT("subject", model -> model.ticket().getSubject()),
+        PRIORITY("priority", model -> model.ticket().getPriority()),
+        CATEGORY("category", model -> model.ticket().getCategory()),
+        STATUS("status", model -> model.ticket().getStatus()),
+        ASSIGNED_TO("assignedTo", model -> model.ticket().getAssignedToAgent()),
+        PREVIOUS_STATUS("previousStatus", EmailModel::previousStatus),
+        COMMENT_SECTION("commentSection", model -> model.comment() != null && !model.comment().isBlank()
+                ? "\nAgent Comment: " + model.comment() + "\n"
+                : "");
+
+        private final String placeholder;
+        private final Function<EmailModel, Object> value;
+
+        Variable(String placeholder, Function<EmailModel, Object> value) {
+            this.placeholder = placeholder;
+            this.value = value;
+        }
+
+        static Variable forPlaceholder(String placeholder) {
+            for (Variable variable : values()) {
+                if (variable.placeholder.equals(placeholder)) {
+                    return variable;
+                }
+            }
+            return null;
+        }
+
+        // Missing values render as empty text rather than "null"
+        String valueOf(EmailModel model) {
+            Object result = value.apply(model);
+            return result != null ? result.toString() : "";
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.EmailOutbox;
+import com.helpdesk.srvc_tckt.event.EmailQueuedEvent;
+import com.helpdesk.srvc_tckt.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends queued customer emails in batches, outside of any ticket transaction.
+ * <p>
+ * A batch is claimed with {@code FOR UPDATE SKIP LOCKED} and leased to this replica for
+ * {@code app.email.outbox.lease}, then the lock is released and the whole batch goes out in a
+ * single {@code send} call (spread over pooled connections by {@link PooledJavaMailSender}).
+ * Replicas therefore never send the same row concurrently, and rows of a replica that dies
+ * mid-send are retried once the lease expires (at-least-once delivery).
+ * Failed emails are retried with exponential backoff until {@code max-attempts}. Sent emails
+ * are counted in {@code app.email.sent}, failed attempts in {@code app.email.failures} with
+ * outcome {@code retrying} or {@code gave_up}.
+ * <p>
+ * Sending always happens on the async executor. The scheduled poll only hands a drain to it,
+ * so a slow SMTP relay never holds up the scheduler thread the other background jobs share.
+ * A drain stops claiming new batches after {@code app.email.outbox.max-drain-time} and leaves
+ * the rest to the next poll.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor asyncExecutor;
+
+    private final ReentrantLock draining = new ReentrantLock();
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private String owner;
+
+    @Value("${app.email.from}")
+    private String fromEmail;
+
+    @Value("${pod.name:unknown-pod}")
+    private String podName;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.lease:PT2M}")
+    private Duration lease;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${app.email.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${app.email.outbox.retention:P7D}")
+    private Duration retention;
+
+    @Value("${app.email.outbox.max-drain-time:PT1M}")
+    private Duration maxDrainTime;
+
+    @PostConstruct
+    void init() {
+        // Unique per process, so a restarted pod never mistakes an old lease for its own
+        owner = podName + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // Sends new emails right after the ticket transaction commits
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        dispatch();
+    }
+
+    // Picks up retries and emails whose wake-up was lost. If the executor is saturated and
+    // drops the task, the next poll tries again.
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval:PT5S}")
+    public void poll() {
+        asyncExecutor.execute(this::dispatch);
+    }
+
+    public void dispatch() {
+        requested.set(true);
+        // A request that arrives while another thread drains is picked up by that thread
+        // after it releases the lock, so no wake-up is lost
+        while (requested.get() && draining.tryLock()) {
+            try {
+                requested.set(false);
+                long deadline = System.nanoTime() + maxDrainTime.toNanos();
+                while (dispatchBatch() == batchSize) {
+                    if (System.nanoTime() - deadline > 0) {
+                        log.info("Outbox drain ran for {}, leaving the remaining emails to the next poll", maxDrainTime);
+                        return;
+                    }
+                    log.debug("Outbox batch was full, fetching the next one");
+                }
+            } catch (RuntimeException e) {
+                log.warn("Email outbox dispatch failed, will retry on the next poll", e);
+                return;
+            } finally {
+                draining.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+                emailOutboxRepository.deleteSentBefore(ZonedDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} sent emails from the outbox", deleted);
+        }
+    }
+
+    int dispatchBatch() {
+        ZonedDateTime now = ZonedDateTime.now();
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> claim(now));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> sent = new ArrayList<>();
+        List<FailedEmail> failed = new ArrayList<>();
+        List<EmailOutbox> sendable = new ArrayList<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.add(toMessage(email));
+                sendable.add(email);
+            } catch (MessagingException e) {
+                failed.add(new FailedEmail(email, e));
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        try {
+            if (!messages.isEmpty()) {
+                mailSender.send(messages.toArray(MimeMessage[]::new));
+            }
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            batchFailure = failures.isEmpty() ? e : null;
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+
+        for (int i = 0; i < messages.size(); i++) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(messages.get(i));
+            if (failure == null) {
+                sent.add(sendable.get(i).getId());
+            } else {
+                failed.add(new FailedEmail(sendable.get(i), failure));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> record(sent, failed));
+        count(sent, failed);
+
+        log.info("Dispatched {} outbox emails: {} sent, {} failed", batch.size(), sent.size(), failed.size());
+        return batch.size();
+    }
+
+    private List<EmailOutbox> claim(ZonedDateTime now) {
+        List<EmailOutbox> batch = emailOutboxRepository.lockDue(now, batchSize);
+        if (!batch.isEmpty()) {
+            emailOutboxRepository.lease(batch.stream().map(EmailOutbox::getId).toList(), owner, now.plus(lease));
+        }
+        return batch;
+    }
+
+    private void record(List<Long> sent, List<FailedEmail> failed) {
+        ZonedDateTime now = ZonedDateTime.now();
+        if (!sent.isEmpty()) {
+            emailOutboxRepository.markSent(sent, owner, now);
+        }
+        for (FailedEmail failure : failed) {
+            EmailOutbox email = failure.email();
+            int attempts = email.getAttempts() + 1;
+            boolean exhausted = attempts >= maxAttempts;
+            emailOutboxRepository.markFailed(email.getId(), owner,
+                    exhausted ? EmailOutbox.Status.FAILED : EmailOutbox.Status.PENDING,
+                    attempts, now.plus(backoff(attempts)), abbreviate(failure.error().getMessage()));
+
+            if (exhausted) {
+                log.error("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(),
+                        attempts, failure.error());
+            } else {
+                log.warn("Email {} to {} failed (attempt {}): {}", email.getId(), email.getRecipient(),
+                        attempts, failure.error().getMessage());
+            }
+        }
+    }
+
+    private void count(List<Long> sent, List<FailedEmail> failed) {
+        meterRegistry.counter("app.email.sent").increment(sent.size());
+        for (FailedEmail failure : failed) {
+            boolean exhausted = failure.email().getAttempts() + 1 >= maxAttempts;
+            meterRegistry.counter("app.email.failures", "outcome", exhausted ? "gave_up" : "retrying").increment();
+        }
+    }
+
+    // initial-backoff, doubled per attempt, capped at max-backoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private MimeMessage toMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.getHtmlBody() != null, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        if (email.getHtmlBody() != null) {
+            helper.setText(email.getBody(), email.getHtmlBody());
+        } else {
+            helper.setText(email.getBody());
+        }
+        return message;
+    }
+
+    private static String abbreviate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    private record FailedEmail(EmailOutbox email, Exception error) {
+    }
+}
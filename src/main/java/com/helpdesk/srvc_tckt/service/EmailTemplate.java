@@ -0,0 +1,114 @@
+package com.helpdesk.srvc_tckt.service;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An email template compiled once into literal segments and placeholder slots. Rendering
+ * resolves each placeholder, sizes a single StringBuilder to the exact result length and
+ * appends; nothing is parsed per email. HTML variants escape the values they insert.
+ * <p>
+ * The text source starts with a {@code Subject:} line followed by a blank line; the HTML
+ * source is the body only and is optional.
+ */
+public final class EmailTemplate {
+
+    private static final String SUBJECT_HEADER = "Subject:";
+
+    private final Part subject;
+    private final Part text;
+    private final Part html;
+
+    private EmailTemplate(Part subject, Part text, Part html) {
+        this.subject = subject;
+        this.text = text;
+        this.html = html;
+    }
+
+    public record Rendered(String subject, String text, String html) {
+    }
+
+    public static EmailTemplate compile(String name, String textSource, String htmlSource) {
+        String source = textSource.replace("\r\n", "\n");
+        int headerEnd = source.indexOf('\n');
+        if (!source.startsWith(SUBJECT_HEADER) || headerEnd < 0) {
+            throw new IllegalStateException("Email template " + name + " must start with a '" + SUBJECT_HEADER + "' line");
+        }
+        String subjectSource = source.substring(SUBJECT_HEADER.length(), headerEnd).strip();
+        String body = source.substring(headerEnd + 1);
+        if (body.startsWith("\n")) {
+            body = body.substring(1);
+        }
+
+        return new EmailTemplate(
+                Part.compile(name, subjectSource, false),
+                Part.compile(name, body, false),
+                htmlSource != null ? Part.compile(name, htmlSource, true) : null);
+    }
+
+    public Rendered render(EmailModel model) {
+        return new Rendered(subject.render(model), text.render(model), html != null ? html.render(model) : null);
+    }
+
+    private static final class Part {
+
+        private final String[] literals;
+        private final EmailModel.Variable[] variables;
+        private final int literalLength;
+        private final boolean escapeHtml;
+
+        private Part(String[] literals, EmailModel.Variable[] variables, boolean escapeHtml) {
+            this.literals = literals;
+            this.variables = variables;
+            this.escapeHtml = escapeHtml;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        // literals always has one more entry than variables: text before, between and after
+        static Part compile(String name, String source, boolean escapeHtml) {
+            List<String> literals = new ArrayList<>();
+            List<EmailModel.Variable> variables = new ArrayList<>();
+            int position = 0;
+            int open;
+            while ((open = source.indexOf("{{", position)) >= 0) {
+                int close = source.indexOf("}}", open + 2);
+                if (close < 0) {
+                    throw new IllegalStateException("Unclosed placeholder in email template " + name);
+                }
+                String placeholder = source.substring(open + 2, close).strip();
+                EmailModel.Variable variable = EmailModel.Variable.forPlaceholder(placeholder);
+                if (variable == null) {
+                    throw new IllegalStateException("Unknown placeholder {{" + placeholder + "}} in email template " + name);
+                }
+                literals.add(source.substring(position, open));
+                variables.add(variable);
+                position = close + 2;
+            }
+            literals.add(source.substring(position));
+            return new Part(literals.toArray(String[]::new), variables.toArray(EmailModel.Variable[]::new), escapeHtml);
+        }
+
+        String render(EmailModel model) {
+            String[] values = new String[variables.length];
+            int length = literalLength;
+            for (int i = 0; i < variables.length; i++) {
+                String value = variables[i].valueOf(model);
+                values[i] = escapeHtml ? HtmlUtils.htmlEscape(value) : value;
+                length += values[i].length();
+            }
+
+            StringBuilder out = new StringBuilder(length);
+            out.append(literals[0]);
+            for (int i = 0; i < values.length; i++) {
+                out.append(values[i]).append(literals[i + 1]);
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.helpdesk.srvc_tckt.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Loads and compiles every email template once at startup, so a broken template fails the
+ * deployment instead of a send. Each template is {@code <name>.txt} plus an optional
+ * {@code <name>.html}; files under {@code app.email.templates.override-location} (e.g.
+ * {@code file:/etc/helpdesk/email/}) take precedence over the defaults in
+ * {@code classpath:/email/}.
+ */
+@Component
+@Slf4j
+public class EmailTemplates {
+
+    private static final String DEFAULT_LOCATION = "classpath:/email/";
+
+    public enum Name {
+        TICKET_CREATED("ticket-created"),
+        TICKET_ASSIGNED("ticket-assigned"),
+        TICKET_UPDATED("ticket-updated"),
+        TICKET_RESOLVED("ticket-resolved"),
+        INFO_REQUESTED("info-requested"),
+        TICKET_CLOSED("ticket-closed");
+
+        private final String fileName;
+
+        Name(String fileName) {
+            this.fileName = fileName;
+        }
+    }
+
+    private final Map<Name, EmailTemplate> templates = new EnumMap<>(Name.class);
+    private final ResourceLoader resourceLoader;
+    private final String overrideLocation;
+
+    public EmailTemplates(ResourceLoader resourceLoader,
+                          @Value("${app.email.templates.override-location:}") String overrideLocation) {
+        this.resourceLoader = resourceLoader;
+        this.overrideLocation = overrideLocation.isBlank() || overrideLocation.endsWith("/")
+                ? overrideLocation
+                : overrideLocation + "/";
+        for (Name name : Name.values()) {
+            templates.put(name, EmailTemplate.compile(name.fileName,
+                    read(name.fileName + ".txt", true), read(name.fileName + ".html", false)));
+        }
+        log.info("Loaded {} email templates", templates.size());
+    }
+
+    public EmailTemplate get(Name name) {
+        return templates.get(name);
+    }
+
+    private String read(String fileName, boolean required) {
+        Resource resource = null;
+        if (!overrideLocation.isBlank()) {
+            resource = resourceLoader.getResource(overrideLocation + fileName);
+            if (resource.exists()) {
+                log.info("Using overridden email template {}", resource.getDescription());
+            }
+        }
+        if (resource == null || !resource.exists()) {
+            resource = resourceLoader.getResource(DEFAULT_LOCATION + fileName);
+        }
+        if (!resource.exists()) {
+            if (required) {
+                throw new IllegalStateException("Missing email template " + fileName);
+            }
+            return null;
+        }
+        try {
+            return resource.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read email template " + fileName, e);
+        }
+    }
+}
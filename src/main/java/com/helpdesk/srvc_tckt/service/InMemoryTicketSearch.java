@@ -0,0 +1,183 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index over active tickets for databases without full-text search (H2 in the
+ * {@code local} profile).
+ * <p>
+ * Built from one pass over the tickets table at startup and kept current from committed
+ * {@link TicketChangedEvent}s; it holds term counts only, never the text itself. Every query
+ * term must match. Scores weigh a subject hit above a description hit, scaled by how rare the
+ * term is. There is no stemming, and tickets written by another replica or by plain SQL show
+ * up only after a restart.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryTicketSearch implements TicketSearch {
+
+    private static final int SUBJECT_WEIGHT = 10;
+    private static final int DESCRIPTION_WEIGHT = 4;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "is", "it",
+            "no", "not", "of", "on", "or", "so", "the", "to", "was", "we", "with");
+
+    private final TicketRepository ticketRepository;
+
+    // term -> ticket id -> weighted count, plus the reverse for removing a ticket's postings
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Set<String>> termsByTicket = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.currentTimeMillis();
+        ticketRepository.scanSearchText(text -> index(text.id(), text.subject(), text.description()));
+        log.info("Indexed {} tickets for search in {} ms", size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        Ticket ticket = event.ticket();
+        if (event.current().archived()) {
+            remove(ticket.getId());
+        } else if (event.type() == TicketChangedEvent.Type.CREATED || event.type() == TicketChangedEvent.Type.UPDATED) {
+            index(ticket.getId(), ticket.getSubject(), ticket.getDescription());
+        }
+    }
+
+    @Override
+    public List<TicketSummary> search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> page = rank(terms).stream().skip(offset).limit(limit).toList();
+        if (page.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TicketSummary> summaries = ticketRepository.findSummariesByIds(page).stream()
+                .collect(Collectors.toMap(TicketSummary::id, Function.identity()));
+        // Tickets archived since they were ranked simply drop out of the page
+        return page.stream().map(summaries::get).filter(Objects::nonNull).toList();
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return termsByTicket.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of the tickets containing every term, best score first, newest first on ties
+    private List<Long> rank(Set<String> terms) {
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Integer> tickets = postings.get(term);
+                if (tickets == null) {
+                    return List.of();
+                }
+                matches.add(tickets);
+            }
+            // Intersect starting from the rarest term
+            matches.sort(Comparator.comparingInt(Map::size));
+
+            double total = termsByTicket.size();
+            Map<Long, Double> scores = new HashMap<>();
+            matches.getFirst().keySet().forEach(id -> scores.put(id, 0.0));
+            for (Map<Long, Integer> tickets : matches) {
+                double idf = Math.log(1 + total / tickets.size());
+                scores.entrySet().removeIf(score -> !tickets.containsKey(score.getKey()));
+                scores.replaceAll((id, score) -> score + tickets.get(id) * idf);
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Long id, String subject, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(subject).forEach(term -> weights.merge(term, SUBJECT_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+            termsByTicket.put(id, weights.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Set<String> terms = termsByTicket.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> tickets = postings.get(term);
+            tickets.remove(id);
+            if (tickets.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    // Lower-cased runs of letters and digits, without stop words and single characters
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
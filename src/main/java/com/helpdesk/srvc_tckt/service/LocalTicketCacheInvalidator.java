@@ -0,0 +1,47 @@
+package com.helpdesk.srvc_tckt.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for {@link PostgresTicketCacheInvalidator} on H2, which has no LISTEN/NOTIFY. An
+ * embedded H2 database can only be shared within one JVM, so every replica using it is an
+ * application context in this JVM; after a commit the changed tickets are evicted directly
+ * from the caches of all other contexts on the same database URL.
+ */
+public class LocalTicketCacheInvalidator extends TicketCacheInvalidator {
+
+    private static final Map<String, Set<TicketCache>> CACHES_BY_DATABASE = new ConcurrentHashMap<>();
+
+    private final String databaseUrl;
+
+    public LocalTicketCacheInvalidator(TicketCache ticketCache, String databaseUrl) {
+        super(ticketCache);
+        this.databaseUrl = databaseUrl;
+    }
+
+    @PostConstruct
+    void register() {
+        CACHES_BY_DATABASE.computeIfAbsent(databaseUrl, url -> ConcurrentHashMap.newKeySet()).add(ticketCache);
+    }
+
+    @PreDestroy
+    void unregister() {
+        CACHES_BY_DATABASE.getOrDefault(databaseUrl, Set.of()).remove(ticketCache);
+    }
+
+    // This replica's own cache is already evicted by TicketCache itself
+    @Override
+    protected void afterCommit(Collection<Long> ids) {
+        for (TicketCache other : CACHES_BY_DATABASE.getOrDefault(databaseUrl, Set.of())) {
+            if (other != ticketCache) {
+                other.evict(ids);
+            }
+        }
+    }
+}
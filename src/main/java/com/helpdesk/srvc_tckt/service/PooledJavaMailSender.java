@@ -0,0 +1,226 @@
+package com.helpdesk.srvc_tckt.service;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A {@link JavaMailSenderImpl} that keeps up to {@code poolSize} SMTP connections open
+ * between sends instead of connecting and saying QUIT on every call. A batch is split across
+ * as many pooled connections as it needs and sent in parallel; connections left idle longer
+ * than {@code idleTimeout} are closed by {@link #evictIdle()}.
+ * <p>
+ * Failures are reported the same way as by the superclass, through a {@link MailSendException}
+ * listing the failed messages. A connection that drops mid-batch is replaced and the rest of
+ * its share of the batch continues on the new one.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final int poolSize;
+    private final long idleTimeoutNanos;
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+    private final ExecutorService senders;
+
+    public PooledJavaMailSender(int poolSize, Duration idleTimeout) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("SMTP pool size must be positive: " + poolSize);
+        }
+        this.poolSize = poolSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.permits = new Semaphore(poolSize, true);
+        // Platform threads: Angus Mail blocks inside synchronized methods, which would pin
+        // virtual threads to their carriers for the whole SMTP conversation
+        this.senders = Executors.newFixedThreadPool(poolSize,
+                Thread.ofPlatform().name("smtp-send-", 0).daemon(true).factory());
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] messages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failed = Collections.synchronizedMap(new LinkedHashMap<>());
+        int connections = Math.min(poolSize, messages.length);
+        if (connections <= 1) {
+            sendOver(messages, originalMessages, 0, messages.length, failed);
+        } else {
+            int share = (messages.length + connections - 1) / connections;
+            List<Future<?>> shares = new ArrayList<>();
+            for (int from = 0; from < messages.length; from += share) {
+                int start = from;
+                int end = Math.min(from + share, messages.length);
+                shares.add(senders.submit(() -> sendOver(messages, originalMessages, start, end, failed)));
+            }
+            awaitAll(shares);
+        }
+
+        if (!failed.isEmpty()) {
+            throw new MailSendException(failed);
+        }
+    }
+
+    public int getIdleConnectionCount() {
+        return idle.size();
+    }
+
+    // Oldest connections sit at the tail, so stop at the first one that is still fresh
+    @Scheduled(fixedDelayString = "${app.email.transport.eviction-interval:PT30S}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        PooledTransport oldest;
+        while ((oldest = idle.peekLast()) != null && oldest.idleFor(now) > idleTimeoutNanos) {
+            if (idle.removeLastOccurrence(oldest)) {
+                log.debug("Closing SMTP connection idle for {} ms", Duration.ofNanos(oldest.idleFor(now)).toMillis());
+                close(oldest);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        senders.shutdownNow();
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    private void sendOver(MimeMessage[] messages, Object[] originalMessages, int from, int to,
+                          Map<Object, Exception> failed) {
+        PooledTransport connection = null;
+        try {
+            for (int i = from; i < to; i++) {
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (MessagingException e) {
+                        for (int j = i; j < to; j++) {
+                            failed.put(key(messages, originalMessages, j), e);
+                        }
+                        return;
+                    }
+                }
+
+                MimeMessage message = messages[i];
+                try {
+                    if (message.getSentDate() == null) {
+                        message.setSentDate(new Date());
+                    }
+                    String messageId = message.getMessageID();
+                    message.saveChanges();
+                    if (messageId != null) {
+                        // saveChanges() generates a new Message-ID; keep an explicit one
+                        message.setHeader("Message-ID", messageId);
+                    }
+                    Address[] recipients = message.getAllRecipients();
+                    connection.transport.sendMessage(message, recipients != null ? recipients : new Address[0]);
+                } catch (Exception e) {
+                    failed.put(key(messages, originalMessages, i), e);
+                    if (!connection.transport.isConnected()) {
+                        discard(connection);
+                        connection = null;
+                    }
+                }
+            }
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            long now = System.nanoTime();
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                // isConnected() sends a NOOP, so a connection the server already dropped is caught here
+                if (pooled.idleFor(now) <= idleTimeoutNanos && pooled.transport.isConnected()) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return new PooledTransport(connectTransport());
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport pooled) {
+        pooled.lastUsed = System.nanoTime();
+        idle.offerFirst(pooled);
+        permits.release();
+    }
+
+    private void discard(PooledTransport pooled) {
+        close(pooled);
+        permits.release();
+    }
+
+    private static void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection", e);
+        }
+    }
+
+    private static Object key(MimeMessage[] messages, Object[] originalMessages, int index) {
+        return originalMessages != null ? originalMessages[index] : messages[index];
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MailSendException("Interrupted while sending mail", e);
+            } catch (ExecutionException e) {
+                throw new MailSendException("Sending mail failed", e.getCause());
+            }
+        }
+    }
+
+    private static final class PooledTransport {
+
+        final Transport transport;
+        volatile long lastUsed = System.nanoTime();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        long idleFor(long now) {
+            return now - lastUsed;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.helpdesk.srvc_tckt.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Cross-replica cache invalidation over PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * The ids a transaction changed go out with {@code pg_notify} inside that transaction, so
+ * PostgreSQL delivers them exactly when, and only if, it commits. Every replica listens on a
+ * dedicated connection outside the pool and evicts what it is told. Notifications sent while
+ * that connection is down are lost, so the whole cache is dropped each time it (re)connects.
+ */
+@Slf4j
+public class PostgresTicketCacheInvalidator extends TicketCacheInvalidator {
+
+    static final String CHANNEL = "ticket_changed";
+
+    // Keeps payloads well under the 8000 byte NOTIFY limit
+    private static final int IDS_PER_NOTIFICATION = 300;
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Callable<Connection> listenConnection;
+    private final Duration retryDelay;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresTicketCacheInvalidator(TicketCache ticketCache, JdbcTemplate jdbcTemplate,
+                                          Callable<Connection> listenConnection, Duration retryDelay) {
+        super(ticketCache);
+        this.jdbcTemplate = jdbcTemplate;
+        this.listenConnection = listenConnection;
+        this.retryDelay = retryDelay;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        listener = Thread.ofPlatform().name("ticket-cache-listener").daemon(true).start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        listener.join(2L * POLL_TIMEOUT_MILLIS);
+    }
+
+    @Override
+    protected void beforeCommit(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += IDS_PER_NOTIFICATION) {
+            List<Long> chunk = all.subList(from, Math.min(from + IDS_PER_NOTIFICATION, all.size()));
+            String payload = String.join(",", chunk.stream().map(String::valueOf).toList());
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+            }, CHANNEL, payload);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = listenConnection.call()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                ticketCache.clear();
+                log.info("Listening for ticket cache invalidations on channel {}", CHANNEL);
+
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (received != null) {
+                        for (PGNotification notification : received) {
+                            ticketCache.evict(parseIds(notification.getParameter()));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Ticket cache invalidation listener failed, reconnecting in {}", retryDelay, e);
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static List<Long> parseIds(String payload) {
+        return Arrays.stream(payload.split(",")).map(Long::valueOf).toList();
+    }
+}
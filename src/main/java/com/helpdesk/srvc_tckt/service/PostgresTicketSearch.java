@@ -0,0 +1,28 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Searches through the GIN index on {@code ticket_search_vector(subject, description)}, which
+ * PostgreSQL keeps current on every write. Ranking and paging happen in the query, so only one page of summaries is
+ * ever read. Ranking is limited to the newest {@code app.search.rank-candidates} matches, so a
+ * query matching most tickets costs no more to rank than one matching that many.
+ */
+@RequiredArgsConstructor
+public class PostgresTicketSearch implements TicketSearch {
+
+    private final TicketRepository ticketRepository;
+    private final int rankCandidates;
+
+    @Override
+    public List<TicketSummary> search(String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return ticketRepository.searchSummaries(query, rankCandidates, offset, limit);
+    }
+}
@@ -0,0 +1,92 @@
+package com.helpdesk.srvc_tckt.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Sequential numbers such as {@code TKT-0000004217}, reserved from a database sequence in
+ * blocks. Each {@code nextval} claims {@code blockSize} numbers for this replica, so the
+ * database is hit once per block rather than once per ticket. Numbers left in a block when
+ * the process stops are skipped, never reused.
+ */
+public final class SequenceBlockTicketNumberGenerator implements TicketNumberGenerator {
+
+    private static final byte[] PREFIX_BYTES = PREFIX.getBytes(StandardCharsets.US_ASCII);
+    private static final int MIN_DIGITS = 10;
+
+    private final LongSupplier blockSource;
+    private final long blockSize;
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    private volatile Block block = new Block(0, 0);
+
+    /**
+     * @param blockSource returns the first number of a fresh block; must advance by at least
+     *                    {@code blockSize} per call (the sequence's INCREMENT BY)
+     */
+    public SequenceBlockTicketNumberGenerator(LongSupplier blockSource, long blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String next() {
+        long value = nextValue();
+        int digits = Math.max(MIN_DIGITS, stringSize(value));
+        byte[] chars = new byte[PREFIX_BYTES.length + digits];
+        System.arraycopy(PREFIX_BYTES, 0, chars, 0, PREFIX_BYTES.length);
+        for (int i = chars.length - 1; i >= PREFIX_BYTES.length; i--) {
+            chars[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(chars, StandardCharsets.US_ASCII);
+    }
+
+    long nextValue() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.limit) {
+                return value;
+            }
+            refill(current);
+        }
+    }
+
+    // Only the thread that finds the block exhausted goes to the database; the rest wait for it
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (block == exhausted) {
+                long start = blockSource.getAsLong();
+                block = new Block(start, start + blockSize);
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static int stringSize(long value) {
+        int size = 1;
+        for (long bound = 10; value >= bound && size < 19; bound *= 10) {
+            size++;
+        }
+        return size;
+    }
+
+    private static final class Block {
+
+        final AtomicLong next;
+        final long limit;
+
+        Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
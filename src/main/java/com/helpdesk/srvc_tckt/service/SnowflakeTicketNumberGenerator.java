@@ -0,0 +1,83 @@
+package com.helpdesk.srvc_tckt.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style numbers: 41 bits of milliseconds since 2025-01-01, a 10-bit node id and a
+ * 12-bit per-millisecond sequence, rendered as 13 Crockford base32 characters
+ * (e.g. {@code TKT-0CJ5T3M8G0041}). Needs no coordination beyond every replica having a
+ * distinct node id.
+ * <p>
+ * Time and sequence live in one {@link AtomicLong}, advanced with a CAS to
+ * {@code max(now, last + 1)}. More than 4096 numbers in a millisecond simply borrow from the
+ * next one, and a clock that steps backwards never repeats a number while the process is up.
+ */
+public final class SnowflakeTicketNumberGenerator implements TicketNumberGenerator {
+
+    public static final int NODE_BITS = 10;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    static final long EPOCH_MILLIS = 1735689600000L; // 2025-01-01T00:00:00Z
+    static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final byte[] PREFIX_BYTES = PREFIX.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final int ENCODED_LENGTH = 13; // ceil(63 / 5)
+
+    private final long nodeField;
+    private final LongSupplier clock;
+
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last number handed out
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeTicketNumberGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeTicketNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeField = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * The trailing ordinal of a StatefulSet pod name such as {@code srvc-tckt-2}, or -1 when
+     * the name has none that fits in a node id.
+     */
+    public static int ordinalOf(String podName) {
+        int end = podName.length();
+        int start = end;
+        while (start > 0 && end - start < 4 && Character.isDigit(podName.charAt(start - 1))) {
+            start--;
+        }
+        // Must be a whole "-N" suffix; Deployment pod names end in random characters instead
+        if (start == end || start == 0 || podName.charAt(start - 1) != '-') {
+            return -1;
+        }
+        int ordinal = Integer.parseInt(podName, start, end, 10);
+        return ordinal <= MAX_NODE_ID ? ordinal : -1;
+    }
+
+    @Override
+    public String next() {
+        long id = nextId();
+        byte[] chars = new byte[PREFIX_BYTES.length + ENCODED_LENGTH];
+        System.arraycopy(PREFIX_BYTES, 0, chars, 0, PREFIX_BYTES.length);
+        for (int i = chars.length - 1; i >= PREFIX_BYTES.length; i--) {
+            chars[i] = CROCKFORD[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars, StandardCharsets.US_ASCII);
+    }
+
+    long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long stamp = last.accumulateAndGet(now, (previous, current) -> Math.max(current, previous + 1));
+        return ((stamp & ~SEQUENCE_MASK) << NODE_BITS) | nodeField | (stamp & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,44 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves archived tickets that are still in the live {@code tickets} table into
+ * {@code tickets_archive}, {@code app.archive.chunk-size} rows per transaction. This drains the
+ * backlog left from before the archive table existed; afterwards {@link TicketService#archive}
+ * moves tickets itself and the sweep only catches stragglers. Chunks skip rows locked by other
+ * transactions, so replicas can sweep at the same time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketArchiver {
+
+    private final TicketRepository ticketRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    @Scheduled(initialDelayString = "${app.archive.initial-delay:PT30S}",
+            fixedDelayString = "${app.archive.sweep-interval:PT10M}")
+    public void sweep() {
+        long total = 0;
+        int moved;
+        do {
+            Integer chunk = transactionTemplate.execute(status -> ticketRepository.moveArchivedChunk(chunkSize));
+            moved = chunk != null ? chunk : 0;
+            total += moved;
+        } while (moved == chunkSize);
+
+        if (total > 0) {
+            log.info("Moved {} archived tickets to tickets_archive", total);
+        }
+    }
+}
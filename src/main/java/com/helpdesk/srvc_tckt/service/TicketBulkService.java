@@ -0,0 +1,94 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketBulkFilter;
+import com.helpdesk.srvc_tckt.dto.TicketBulkResult;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.entity.TicketTransition;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import com.helpdesk.srvc_tckt.event.TicketSnapshot;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Workflow transitions applied to every ticket matching a filter, such as closing resolved
+ * tickets after a week or archiving closed ones after a quarter.
+ * <p>
+ * Tickets are changed {@code app.tickets.bulk-chunk-size} at a time, each chunk one set-based
+ * UPDATE in its own transaction together with its customer emails (one outbox batch) and, when
+ * archiving, the move to {@code tickets_archive}. A failure stops the run; chunks committed
+ * before it stay committed, and running the operation again picks up where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketBulkService {
+
+    private final TicketRepository ticketRepository;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.tickets.bulk-chunk-size:500}")
+    private int chunkSize;
+
+    // RESOLVED -> CLOSED, emailing each customer
+    public TicketBulkResult closeResolved(TicketBulkFilter filter) {
+        return run(TicketTransition.CLOSE, filter);
+    }
+
+    // CLOSED -> ARCHIVED, straight into tickets_archive
+    public TicketBulkResult archiveClosed(TicketBulkFilter filter) {
+        return run(TicketTransition.ARCHIVE, filter);
+    }
+
+    private TicketBulkResult run(TicketTransition transition, TicketBulkFilter filter) {
+        long affected = 0;
+        int chunks = 0;
+        int changed;
+        do {
+            Integer chunk = transactionTemplate.execute(status -> applyChunk(transition, filter));
+            changed = chunk != null ? chunk : 0;
+            if (changed > 0) {
+                affected += changed;
+                chunks++;
+            }
+        } while (changed == chunkSize);
+
+        log.info("Bulk {} changed {} tickets in {} chunks ({})", transition, affected, chunks, filter);
+        return TicketBulkResult.builder()
+                .transition(transition)
+                .affected(affected)
+                .chunks(chunks)
+                .build();
+    }
+
+    private int applyChunk(TicketTransition transition, TicketBulkFilter filter) {
+        ZonedDateTime now = ZonedDateTime.now();
+        List<Ticket> tickets = ticketRepository.transitionMatching(transition, filter, now, chunkSize);
+        if (tickets.isEmpty()) {
+            return 0;
+        }
+
+        TicketChangedEvent.Type type = TicketService.eventType(transition);
+        for (Ticket ticket : tickets) {
+            TicketSnapshot previous = TicketSnapshot.of(ticket);
+            transition.applyTo(ticket, now, null);
+            eventPublisher.publishEvent(TicketChangedEvent.of(type, ticket, previous, now));
+        }
+
+        if (transition.archives()) {
+            ticketRepository.moveToArchive(tickets.stream().map(Ticket::getId).toList());
+        } else if (transition == TicketTransition.CLOSE) {
+            emailService.sendTicketClosedEmails(tickets);
+        }
+        return tickets.size();
+    }
+}
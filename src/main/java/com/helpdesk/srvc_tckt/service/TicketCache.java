@@ -0,0 +1,61 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, expiring cache of single-ticket reads, in front of the repository.
+ * <p>
+ * Entries are detached copies, and every caller gets its own copy, so nothing a caller does
+ * to a ticket reaches the cache or the persistence context. A ticket is evicted as soon as a
+ * transaction that changed it commits on this replica, and when a {@link TicketCacheInvalidator}
+ * reports a change from another replica; the TTL bounds staleness should such a message be
+ * lost. Loads are atomic per id, so an eviction can never be overtaken by a load that read the
+ * old row. Hits and misses are exported as the {@code cache.gets} meters of cache "tickets".
+ */
+public class TicketCache {
+
+    private final Cache<Long, Ticket> cache;
+
+    public TicketCache(long maximumSize, Duration timeToLive, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tickets");
+    }
+
+    // Missing tickets are not cached
+    public Optional<Ticket> get(Long id, Function<Long, Optional<Ticket>> loader) {
+        Ticket cached = cache.get(id, key -> loader.apply(key).map(TicketCache::copy).orElse(null));
+        return Optional.ofNullable(cached).map(TicketCache::copy);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        cache.invalidate(event.ticket().getId());
+    }
+
+    public void evict(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private static Ticket copy(Ticket ticket) {
+        return ticket.toBuilder().build();
+    }
+}
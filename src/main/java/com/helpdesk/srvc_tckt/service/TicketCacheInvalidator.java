@@ -0,0 +1,70 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tells the other replicas which tickets a transaction changed, so they can drop them from
+ * their {@link TicketCache}. Ids are collected while the transaction runs and handed over
+ * once, either as part of the commit or right after it. Picked per database by
+ * {@link com.helpdesk.srvc_tckt.config.CacheConfig}.
+ */
+@RequiredArgsConstructor
+public abstract class TicketCacheInvalidator {
+
+    protected final TicketCache ticketCache;
+
+    @EventListener
+    public void onTicketChanged(TicketChangedEvent event) {
+        Long id = event.ticket().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            beforeCommit(List.of(id));
+            afterCommit(List.of(id));
+            return;
+        }
+
+        ChangedTickets changed = (ChangedTickets) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            changed = new ChangedTickets();
+            TransactionSynchronizationManager.bindResource(this, changed);
+            TransactionSynchronizationManager.registerSynchronization(changed);
+        }
+        changed.ids.add(id);
+    }
+
+    // Runs inside the committing transaction, after the last change
+    protected void beforeCommit(Collection<Long> ids) {
+    }
+
+    // Runs once the transaction has committed
+    protected void afterCommit(Collection<Long> ids) {
+    }
+
+    private final class ChangedTickets implements TransactionSynchronization {
+
+        private final Set<Long> ids = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            TicketCacheInvalidator.this.beforeCommit(ids);
+        }
+
+        @Override
+        public void afterCommit() {
+            TicketCacheInvalidator.this.afterCommit(ids);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TicketCacheInvalidator.this);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.helpdesk.srvc_tckt.service;
+
+/**
+ * Thrown when a status transition is rejected because the ticket is no longer in a status the
+ * transition can start from, typically because someone else moved it first.
+ */
+public class TicketConflictException extends RuntimeException {
+
+    public TicketConflictException(String message) {
+        super(message);
+    }
+}
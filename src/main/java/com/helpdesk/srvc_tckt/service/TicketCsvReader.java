@@ -0,0 +1,117 @@
+package com.helpdesk.srvc_tckt.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time: comma separated, fields optionally quoted, {@code ""}
+ * for a quote inside a quoted field, and line breaks allowed inside quotes. Only the current
+ * record is held in memory; a record longer than {@code maxRecordLength} characters (usually
+ * an unterminated quote swallowing the rest of the file) fails the read.
+ */
+class TicketCsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final int maxRecordLength;
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private long recordLine;
+    private int pending = -2;
+
+    TicketCsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // Line on which the record last returned by readRecord() starts
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    // Null at end of input. Blank lines are skipped.
+    List<String> readRecord() throws IOException {
+        if (pending == -2) {
+            pending = reader.read();
+            if (pending == '\uFEFF') {
+                // byte order mark written by Excel
+                pending = reader.read();
+            }
+        }
+        while (pending == '\r' || pending == '\n') {
+            skipLineBreak();
+        }
+        if (pending == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        int length = 0;
+        boolean quoted = false;
+        field.setLength(0);
+        while (true) {
+            int c = pending;
+            if (c == -1) {
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field in record starting on line " + recordLine);
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > maxRecordLength) {
+                throw new IOException("Record starting on line " + recordLine + " is longer than "
+                        + maxRecordLength + " characters");
+            }
+
+            if (quoted) {
+                pending = reader.read();
+                if (c == '"') {
+                    if (pending == '"') {
+                        field.append('"');
+                        pending = reader.read();
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n' || (c == '\r' && pending != '\n')) {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                pending = reader.read();
+            } else if (c == '\r' || c == '\n') {
+                skipLineBreak();
+                fields.add(field.toString());
+                return fields;
+            } else {
+                if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else {
+                    field.append((char) c);
+                }
+                pending = reader.read();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void skipLineBreak() throws IOException {
+        int c = pending;
+        pending = reader.read();
+        if (c == '\r' && pending == '\n') {
+            pending = reader.read();
+        }
+        line++;
+    }
+}
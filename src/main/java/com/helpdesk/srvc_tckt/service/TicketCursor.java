@@ -0,0 +1,56 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Keyset position (created_at, id) of the last ticket on a page, encoded as a URL-safe token.
+ */
+public record TicketCursor(ZonedDateTime createdAt, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static TicketCursor of(TicketSummary ticket) {
+        return new TicketCursor(ticket.createdAt(), ticket.id());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}. Returns null for blank or malformed tokens
+     * so callers fall back to the first page.
+     */
+    public static TicketCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            Instant createdAt = Instant.parse(raw.substring(0, split));
+            long id = Long.parseLong(raw.substring(split + 1));
+            return new TicketCursor(ZonedDateTime.ofInstant(createdAt, ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ScrollPosition toScrollPosition() {
+        return ScrollPosition.forward(Map.of("createdAt", createdAt, "id", id));
+    }
+
+    public static ScrollPosition positionOf(String token) {
+        TicketCursor cursor = decode(token);
+        return cursor != null ? cursor.toScrollPosition() : ScrollPosition.keyset();
+    }
+}
@@ -0,0 +1,232 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketEventEntry;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import com.helpdesk.srvc_tckt.repository.TicketEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.chrono.ChronoZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Appends every committed ticket change to {@code ticket_events}.
+ * <p>
+ * The committing thread only puts the event into a bounded in-memory buffer. The buffer is
+ * written every {@code app.ticket-events.flush-interval}, or as soon as a full batch is
+ * waiting, as JDBC batch inserts of {@code batch-size} rows with one transaction per batch. A
+ * batch that fails stays in hand and is retried on the next flush, so an event may be written
+ * twice but is not lost while the replica is up. The committing thread never waits: when the
+ * buffer is full, for instance while the database is unreachable, the event is dropped,
+ * counted in {@code app.ticket-events.dropped}, logged with a warning and a flush is requested.
+ * Events still buffered on shutdown are flushed first.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketEventRecorder {
+
+    private final TicketEventRepository ticketEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Held by the one thread writing a batch, for as long as the insert takes
+    private final ReentrantLock flushing = new ReentrantLock();
+    // Guards moving events from the buffer to inFlight and clearing it, never held during I/O
+    private final ReentrantLock handover = new ReentrantLock();
+    // The batch being written, or the one that failed and is retried next
+    private final List<TicketEventEntry> inFlight = new ArrayList<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Events dropped since the buffer last filled up, reported once it drains
+    private final AtomicLong droppedSinceFull = new AtomicLong();
+    private BlockingQueue<TicketEventEntry> buffer;
+    // Writes full batches as soon as they are waiting; one thread, since flushes are serial anyway
+    private ExecutorService flusher;
+    private Counter dropped;
+    private Counter written;
+
+    @Value("${pod.name:unknown-pod}")
+    private String podName;
+
+    @Value("${app.ticket-events.buffer-size:10000}")
+    private int bufferSize;
+
+    @Value("${app.ticket-events.batch-size:500}")
+    private int batchSize;
+
+    @PostConstruct
+    void init() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        flusher = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+                .name("ticket-events-flush")
+                .daemon(true)
+                .factory());
+        Gauge.builder("app.ticket-events.buffered", this, recorder -> recorder.buffer.size())
+                .description("Ticket events waiting to be written")
+                .register(meterRegistry);
+        // Registered up front, so a dashboard shows zero drops rather than no data
+        dropped = Counter.builder("app.ticket-events.dropped")
+                .description("Ticket events lost because the buffer stayed full")
+                .register(meterRegistry);
+        written = Counter.builder("app.ticket-events.written")
+                .description("Ticket events written to ticket_events")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (!buffer.offer(toEntry(event))) {
+            dropped.increment();
+            if (droppedSinceFull.getAndIncrement() == 0) {
+                log.warn("Ticket event buffer is full ({} events), dropping events until it drains", bufferSize);
+            }
+            requestFlush();
+            return;
+        }
+        // Bulk operations fill the buffer faster than the flush interval empties it
+        if (buffer.size() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ticket-events.flush-interval:PT1S}")
+    public void flush() {
+        flushRequested.set(false);
+        try {
+            while (flushBatch() == batchSize) {
+                log.debug("Ticket event batch was full, writing the next one");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Writing ticket events failed, will retry on the next flush", e);
+        }
+    }
+
+    // Written events plus those of this replica still waiting to be written, oldest first.
+    // The pending ones are copied before the database is read, so an event written in between
+    // is found twice and counted once; an event is never missed.
+    public List<TicketEventEntry> getEvents(Long ticketId) {
+        List<TicketEventEntry> pending;
+        handover.lock();
+        try {
+            pending = Stream.concat(inFlight.stream(), buffer.stream())
+                    .filter(event -> event.ticketId().equals(ticketId))
+                    .toList();
+        } finally {
+            handover.unlock();
+        }
+
+        List<TicketEventEntry> events = new ArrayList<>(ticketEventRepository.findByTicketId(ticketId));
+        Set<EventKey> written = new HashSet<>();
+        events.forEach(event -> written.add(EventKey.of(event)));
+        pending.stream()
+                .filter(event -> !written.contains(EventKey.of(event)))
+                .forEach(events::add);
+        events.sort(Comparator.comparing(TicketEventEntry::occurredAt, ChronoZonedDateTime.timeLineOrder()));
+        return events;
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the final flush picks the events up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+        int left = inFlight.size() + buffer.size();
+        if (left > 0) {
+            log.warn("Shutting down with {} ticket events not written", left);
+        }
+    }
+
+    int flushBatch() {
+        flushing.lock();
+        try {
+            handover.lock();
+            try {
+                if (inFlight.isEmpty()) {
+                    buffer.drainTo(inFlight, batchSize);
+                }
+            } finally {
+                handover.unlock();
+            }
+            int size = inFlight.size();
+            if (size == 0) {
+                return 0;
+            }
+            // inFlight only changes under the flushing lock, which this thread holds
+            transactionTemplate.executeWithoutResult(status -> ticketEventRepository.insertAll(inFlight));
+            handover.lock();
+            try {
+                inFlight.clear();
+            } finally {
+                handover.unlock();
+            }
+            written.increment(size);
+            long lost = droppedSinceFull.getAndSet(0);
+            if (lost > 0) {
+                log.warn("Ticket event buffer is draining again, {} events were dropped", lost);
+            }
+            log.debug("Wrote {} ticket events", size);
+            return size;
+        } finally {
+            flushing.unlock();
+        }
+    }
+
+    // Stored timestamps have microsecond precision, so buffered ones are cut to the same and
+    // compare equal to their written copy
+    private TicketEventEntry toEntry(TicketChangedEvent event) {
+        return new TicketEventEntry(
+                event.ticket().getId(),
+                event.type(),
+                event.previous() != null ? event.previous().status() : null,
+                event.current().status(),
+                event.ticket().getAssignedToAgent(),
+                podName,
+                event.occurredAt().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    // What tells a buffered event and its written copy apart from other events of the ticket
+    private record EventKey(TicketChangedEvent.Type type, Ticket.Status toStatus, Instant occurredAt) {
+
+        static EventKey of(TicketEventEntry event) {
+            return new EventKey(event.type(), event.toStatus(), event.occurredAt().toInstant());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes all active or all archived tickets as CSV or NDJSON straight to an output stream.
+ * Tickets are read through database cursors ({@link TicketRepository#streamByArchived}, plus
+ * {@code tickets_archive} for archived tickets) and detached as soon as they are written, so
+ * the export holds one fetch of rows at a time no matter how many tickets there are. The CSV
+ * header uses the same column names as the import.
+ * <p>
+ * Subjects, names and descriptions come from customers. A CSV value a spreadsheet would read as
+ * a formula (starting with {@code = + - @}, tab or carriage return) is written with a leading
+ * {@code '}, which the import removes again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketExportService {
+
+    private enum Column {
+        ID("id", Ticket::getId),
+        TICKET_NUMBER("ticketNumber", Ticket::getTicketNumber),
+        SUBJECT("subject", Ticket::getSubject),
+        DESCRIPTION("description", Ticket::getDescription),
+        PRIORITY("priority", Ticket::getPriority),
+        CATEGORY("category", Ticket::getCategory),
+        STATUS("status", Ticket::getStatus),
+        CUSTOMER_NAME("customerName", Ticket::getCustomerName),
+        CUSTOMER_EMAIL("customerEmail", Ticket::getCustomerEmail),
+        ASSIGNED_TO_AGENT("assignedToAgent", Ticket::getAssignedToAgent),
+        HANDLED_BY_POD("handledByPod", Ticket::getHandledByPod),
+        HANDLED_BY_NODE("handledByNode", Ticket::getHandledByNode),
+        CREATED_AT("createdAt", Ticket::getCreatedAt),
+        ASSIGNED_AT("assignedAt", Ticket::getAssignedAt),
+        RESOLVED_AT("resolvedAt", Ticket::getResolvedAt),
+        ARCHIVED("archived", Ticket::getArchived);
+
+        private final String header;
+        private final Function<Ticket, Object> value;
+
+        Column(String header, Function<Ticket, Object> value) {
+            this.header = header;
+            this.value = value;
+        }
+    }
+
+    // First characters that make Excel, LibreOffice and Google Sheets evaluate a cell
+    static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final TicketRepository ticketRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    // Returns the number of tickets written. The stream is flushed but not closed.
+    @Transactional(readOnly = true)
+    public long export(boolean archived, TicketFileFormat format, OutputStream out) {
+        long count = 0;
+        // Archived tickets not yet swept into tickets_archive come first
+        try (Stream<Ticket> tickets = archived
+                ? Stream.concat(ticketRepository.streamByArchived(true), ticketRepository.streamArchived())
+                : ticketRepository.streamByArchived(false)) {
+            Iterator<Ticket> rows = tickets.iterator();
+            if (format == TicketFileFormat.CSV) {
+                count = writeCsv(rows, out);
+            } else {
+                count = writeNdjson(rows, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Exported {} {} tickets as {}", count, archived ? "archived" : "active", format);
+        return count;
+    }
+
+    private long writeCsv(Iterator<Ticket> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        Column[] columns = Column.values();
+        for (int i = 0; i < columns.length; i++) {
+            writer.write(i == 0 ? "" : ",");
+            writer.write(columns[i].header);
+        }
+        writer.write("\r\n");
+
+        long count = 0;
+        while (rows.hasNext()) {
+            Ticket ticket = rows.next();
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns[i].value.apply(ticket);
+                if (value != null) {
+                    writeCsvField(writer, value.toString());
+                }
+            }
+            writer.write("\r\n");
+            detach(ticket);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Ticket> rows, OutputStream out) {
+        long count = 0;
+        // One object per line, leaving the response stream open
+        try (JsonGenerator json = objectMapper.writer()
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("")
+                .createGenerator(out)) {
+            while (rows.hasNext()) {
+                Ticket ticket = rows.next();
+                json.writeStartObject();
+                for (Column column : Column.values()) {
+                    Object value = column.value.apply(ticket);
+                    json.writeName(column.header);
+                    if (value == null) {
+                        json.writeNull();
+                    } else if (value instanceof Long number) {
+                        json.writeNumber(number);
+                    } else if (value instanceof Boolean flag) {
+                        json.writeBoolean(flag);
+                    } else {
+                        json.writeString(value.toString());
+                    }
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+                detach(ticket);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Rows from tickets_archive are plain objects that were never managed
+    private void detach(Ticket ticket) {
+        if (entityManager.contains(ticket)) {
+            entityManager.detach(ticket);
+        }
+    }
+
+    // Quoted only when needed, with embedded quotes doubled (RFC 4180); formulas neutralized
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,277 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketCreateRequest;
+import com.helpdesk.srvc_tckt.dto.TicketImportResult;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports tickets from a CSV or NDJSON stream, e.g. when migrating from a legacy helpdesk.
+ * <p>
+ * Rows are parsed one at a time and checked against the {@link TicketCreateRequest}
+ * constraints; valid rows are written through {@link TicketService#createTickets} in
+ * transactions of {@code app.import.batch-size}, and the persistence context is cleared after
+ * each one, so memory use does not depend on the size of the file. An invalid row is reported
+ * with its line number and skipped; it never fails the rows around it, not even when only the
+ * database rejects it.
+ * <p>
+ * CSV needs a header row naming the columns {@code subject, description, priority, category,
+ * customerName, customerEmail} (case, spaces and underscores are ignored). NDJSON has one
+ * JSON object with those properties per line.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketImportService {
+
+    private enum Column {
+        SUBJECT, DESCRIPTION, PRIORITY, CATEGORY, CUSTOMER_NAME, CUSTOMER_EMAIL;
+
+        private final String key = name().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static final int MAX_RECORD_LENGTH = 1024 * 1024;
+
+    private final TicketService ticketService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public TicketImportResult importTickets(InputStream input, TicketFileFormat format, boolean sendEmails) {
+        Batch batch = new Batch(sendEmails);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (format == TicketFileFormat.CSV) {
+                readCsv(reader, batch);
+            } else {
+                readNdjson(reader, batch);
+            }
+            batch.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Import stopped after " + batch.rowsRead + " rows: " + e.getMessage(), e);
+        }
+
+        log.info("Imported {} of {} {} rows ({} failed), emails {}", batch.imported, batch.rowsRead, format,
+                batch.failed, sendEmails ? "sent" : "skipped");
+        return TicketImportResult.builder()
+                .rowsRead(batch.rowsRead)
+                .imported(batch.imported)
+                .failed(batch.failed)
+                .errors(batch.errors)
+                .errorsTruncated(batch.failed > batch.errors.size())
+                .build();
+    }
+
+    private void readCsv(BufferedReader reader, Batch batch) throws IOException {
+        TicketCsvReader csv = new TicketCsvReader(reader, MAX_RECORD_LENGTH);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<Column, Integer> positions = columnPositions(header);
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            long line = csv.getRecordLine();
+            try {
+                batch.add(line, TicketCreateRequest.builder()
+                        .subject(value(record, positions, Column.SUBJECT))
+                        .description(value(record, positions, Column.DESCRIPTION))
+                        .priority(enumValue(Ticket.Priority.class, value(record, positions, Column.PRIORITY)))
+                        .category(enumValue(Ticket.Category.class, value(record, positions, Column.CATEGORY)))
+                        .customerName(value(record, positions, Column.CUSTOMER_NAME))
+                        .customerEmail(value(record, positions, Column.CUSTOMER_EMAIL))
+                        .build());
+            } catch (IllegalArgumentException e) {
+                batch.reject(line, e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Batch batch) throws IOException {
+        ObjectReader rowReader = objectMapper.readerFor(TicketCreateRequest.class);
+        long line = 0;
+        String json;
+        while ((json = reader.readLine()) != null) {
+            line++;
+            if (json.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(line, rowReader.readValue(json));
+            } catch (JacksonException e) {
+                batch.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static Map<Column, Integer> columnPositions(List<String> header) {
+        Map<String, Integer> byKey = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            byKey.put(header.get(i).replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT), i);
+        }
+
+        Map<Column, Integer> positions = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (Column column : Column.values()) {
+            Integer position = byKey.get(column.key);
+            if (position == null) {
+                missing.add(column.key);
+            } else {
+                positions.put(column, position);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return positions;
+    }
+
+    private static String value(List<String> record, Map<Column, Integer> positions, Column column) {
+        int position = positions.get(column);
+        if (position >= record.size()) {
+            return null;
+        }
+        String value = record.get(position);
+        // Undo the export's formula guard before trimming, which would eat a leading tab
+        if (value.length() > 1 && value.charAt(0) == '\''
+                && TicketExportService.FORMULA_PREFIXES.indexOf(value.charAt(1)) >= 0) {
+            value = value.substring(1);
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // The driver's message says which constraint the row broke; the wrappers around it do not.
+    // Only its first line, the statement that follows is of no use to the uploader.
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        String message = cause.getMessage();
+        return message != null ? message.lines().findFirst().orElse("").strip() : cause.getClass().getSimpleName();
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName().toLowerCase(Locale.ROOT)
+                    + " '" + value + "'");
+        }
+    }
+
+    // Valid rows waiting to be written, plus the running totals of the import
+    private final class Batch {
+
+        private final boolean sendEmails;
+        private final List<TicketCreateRequest> requests = new ArrayList<>();
+        private final List<Long> lines = new ArrayList<>();
+        private final List<TicketImportResult.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long failed;
+
+        Batch(boolean sendEmails) {
+            this.sendEmails = sendEmails;
+        }
+
+        void add(long line, TicketCreateRequest request) {
+            rowsRead++;
+            Set<ConstraintViolation<TicketCreateRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                recordError(line, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            requests.add(request);
+            lines.add(line);
+            if (requests.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            rowsRead++;
+            recordError(line, message);
+        }
+
+        void flush() {
+            if (requests.isEmpty()) {
+                return;
+            }
+            try {
+                write(requests, lines);
+            } finally {
+                requests.clear();
+                lines.clear();
+            }
+        }
+
+        // A batch the database rejects was rolled back as a whole. It is split in halves and
+        // each half retried, so only the rows that fail on their own are reported and a few bad
+        // rows cost a few extra transactions, not one per row.
+        private void write(List<TicketCreateRequest> rows, List<Long> rowLines) {
+            try {
+                ticketService.createTickets(rows, sendEmails);
+                imported += rows.size();
+            } catch (RuntimeException e) {
+                if (rows.size() == 1) {
+                    log.warn("Import row on line {} failed: {}", rowLines.getFirst(), e.getMessage());
+                    recordError(rowLines.getFirst(), "Not saved: " + rootMessage(e));
+                    return;
+                }
+                log.debug("Import batch of {} rows starting on line {} failed, retrying in halves",
+                        rows.size(), rowLines.getFirst(), e);
+                int half = rows.size() / 2;
+                write(rows.subList(0, half), rowLines.subList(0, half));
+                write(rows.subList(half, rows.size()), rowLines.subList(half, rowLines.size()));
+            } finally {
+                // Drop the saved tickets from an open-in-view persistence context
+                entityManager.clear();
+            }
+        }
+
+        private void recordError(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new TicketImportResult.RowError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.helpdesk.srvc_tckt.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Times ticket operations and counts the ones that lost a race.
+ * <p>
+ * {@code app.tickets.operation} is a timer per operation (create, assign, start_progress,
+ * resolve, close, archive, ...) and outcome. When the operation runs in a transaction the
+ * sample is stopped once the transaction has completed, so the time includes the commit and
+ * the outcome says whether it committed:
+ * <ul>
+ *   <li>{@code success} - committed</li>
+ *   <li>{@code conflict} - someone else changed the ticket first, also counted in
+ *       {@code app.tickets.conflicts}</li>
+ *   <li>{@code error} - failed for any other reason</li>
+ *   <li>{@code rolled_back} - the operation returned, but its transaction did not commit</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class TicketMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T record(String operation, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T result;
+        try {
+            result = action.get();
+        } catch (TicketConflictException | OptimisticLockingFailureException e) {
+            meterRegistry.counter("app.tickets.conflicts", "operation", operation).increment();
+            sample.stop(timer(operation, "conflict"));
+            throw e;
+        } catch (RuntimeException e) {
+            sample.stop(timer(operation, "error"));
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sample.stop(timer(operation, "success"));
+            return result;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(timer(operation, status == STATUS_COMMITTED ? "success" : "rolled_back"));
+            }
+        });
+        return result;
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("app.tickets.operation")
+                .description("Ticket operations, including the commit")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.helpdesk.srvc_tckt.service;
+
+/**
+ * Produces the human-facing {@code ticket_number}. Implementations must be thread-safe and
+ * never hand out the same number twice, including across replicas sharing one database.
+ * The implementation is chosen with {@code app.ticket-number.mode}; see TicketNumberConfig.
+ */
+public interface TicketNumberGenerator {
+
+    String PREFIX = "TKT-";
+
+    String next();
+}
@@ -0,0 +1,85 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import com.helpdesk.srvc_tckt.repository.TicketRepositoryCustom.QueueDepth;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Queue pressure for autoscaling and alerting: {@code app.tickets.queue.depth} (NEW tickets per
+ * priority) and {@code app.tickets.queue.oldest.age} (seconds the oldest of them has waited).
+ * <p>
+ * The database is sampled every {@code app.tickets.queue-metrics.interval} with one index-only
+ * query, never on a scrape. The age is computed from the sampled creation time when it is
+ * read, so it keeps growing between samples while nobody claims the ticket. Every replica
+ * reports the same shared queue, so aggregate these with max, not sum.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketQueueMetrics implements MeterBinder {
+
+    private final TicketRepository ticketRepository;
+
+    private final Map<Ticket.Priority, AtomicLong> depth = depths();
+    private final AtomicReference<Instant> oldestCreatedAt = new AtomicReference<>();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        depth.forEach((priority, tickets) -> Gauge.builder("app.tickets.queue.depth", tickets, AtomicLong::get)
+                .description("Unassigned tickets, as of the last sample")
+                .tag("priority", priority.name())
+                .register(registry));
+        Gauge.builder("app.tickets.queue.oldest.age", this, TicketQueueMetrics::oldestAgeSeconds)
+                .description("How long the oldest unassigned ticket has been waiting, 0 when there is none")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.tickets.queue-metrics.interval:PT15S}")
+    public void sample() {
+        List<QueueDepth> queue = ticketRepository.findQueueDepth();
+
+        Map<Ticket.Priority, Long> counts = new EnumMap<>(Ticket.Priority.class);
+        Instant oldest = null;
+        for (QueueDepth entry : queue) {
+            counts.put(entry.priority(), entry.tickets());
+            Instant createdAt = entry.oldestCreatedAt().toInstant();
+            if (oldest == null || createdAt.isBefore(oldest)) {
+                oldest = createdAt;
+            }
+        }
+        depth.forEach((priority, tickets) -> tickets.set(counts.getOrDefault(priority, 0L)));
+        oldestCreatedAt.set(oldest);
+        log.debug("Sampled ticket queue: {}, oldest created at {}", counts, oldest);
+    }
+
+    private double oldestAgeSeconds() {
+        Instant oldest = oldestCreatedAt.get();
+        if (oldest == null) {
+            return 0;
+        }
+        return Math.max(0, Instant.now().toEpochMilli() - oldest.toEpochMilli()) / 1000.0;
+    }
+
+    private static Map<Ticket.Priority, AtomicLong> depths() {
+        Map<Ticket.Priority, AtomicLong> map = new EnumMap<>(Ticket.Priority.class);
+        for (Ticket.Priority priority : Ticket.Priority.values()) {
+            map.put(priority, new AtomicLong());
+        }
+        return map;
+    }
+}
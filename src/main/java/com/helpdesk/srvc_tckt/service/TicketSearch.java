@@ -0,0 +1,15 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+
+import java.util.List;
+
+/**
+ * Full-text search over the subject and description of active tickets. Picked per database by
+ * {@link com.helpdesk.srvc_tckt.config.SearchConfig}.
+ */
+public interface TicketSearch {
+
+    // Best match first; blank queries match nothing
+    List<TicketSummary> search(String query, int offset, int limit);
+}
@@ -1,19 +1,31 @@
 package com.helpdesk.srvc_tckt.service;
 
 import com.helpdesk.srvc_tckt.dto.TicketCreateRequest;
+import com.helpdesk.srvc_tckt.dto.TicketEventEntry;
+import com.helpdesk.srvc_tckt.dto.TicketHistoryEntry;
+import com.helpdesk.srvc_tckt.dto.TicketPage;
+import com.helpdesk.srvc_tckt.dto.TicketQueueEntry;
+import com.helpdesk.srvc_tckt.dto.TicketSearchPage;
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
 import com.helpdesk.srvc_tckt.dto.TicketUpdateRequest;
 import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.entity.TicketTransition;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import com.helpdesk.srvc_tckt.event.TicketSnapshot;
 import com.helpdesk.srvc_tckt.repository.TicketRepository;
-import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -22,6 +34,14 @@ public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final EmailService emailService;
+    private final TicketCounters ticketCounters;
+    private final TicketNumberGenerator ticketNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TicketSearch ticketSearch;
+    private final TicketCache ticketCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TicketMetrics ticketMetrics;
+    private final TicketEventRecorder ticketEventRecorder;
 
     @Value("${pod.name:unknown-pod}")
     private String podName;
@@ -29,12 +49,68 @@ public class TicketService {
     @Value("${node.name:unknown-node}")
     private String nodeName;
 
+    @Value("${app.tickets.max-bulk-size:1000}")
+    private int maxBulkSize;
+
+    @Value("${app.tickets.page-size:25}")
+    private int defaultPageSize;
+
+    @Value("${app.tickets.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.search.max-results:1000}")
+    private int maxSearchResults;
+
     @Transactional
     public Ticket createTicket(TicketCreateRequest request) {
-        String ticketNumber = generateTicketNumber();
+        return ticketMetrics.record("create", () -> {
+            Ticket savedTicket = ticketRepository.save(newTicket(request));
+            log.info("Created ticket {}", savedTicket.getTicketNumber());
+
+            eventPublisher.publishEvent(TicketChangedEvent.of(TicketChangedEvent.Type.CREATED, savedTicket, null,
+                    savedTicket.getCreatedAt()));
+            emailService.sendTicketCreatedEmail(savedTicket);
+
+            return savedTicket;
+        });
+    }
+
+    /**
+     * Creates all tickets in one transaction, so either all of them exist or none do. Ids come
+     * from a pooled sequence, which lets the ticket and outbox inserts go out as JDBC batches
+     * instead of one round trip per row.
+     */
+    @Transactional
+    public List<Ticket> createTickets(List<TicketCreateRequest> requests) {
+        return createTickets(requests, true);
+    }
 
-        Ticket ticket = Ticket.builder()
-                .ticketNumber(ticketNumber)
+    // sendEmails=false for imports of tickets the customers already know about
+    @Transactional
+    public List<Ticket> createTickets(List<TicketCreateRequest> requests, boolean sendEmails) {
+        if (requests.size() > maxBulkSize) {
+            throw new RuntimeException("Cannot create more than " + maxBulkSize + " tickets at once");
+        }
+
+        return ticketMetrics.record("create_bulk", () -> {
+            List<Ticket> savedTickets = ticketRepository.saveAll(requests.stream().map(this::newTicket).toList());
+            log.info("Created {} tickets", savedTickets.size());
+
+            for (Ticket ticket : savedTickets) {
+                eventPublisher.publishEvent(TicketChangedEvent.of(TicketChangedEvent.Type.CREATED, ticket, null,
+                        ticket.getCreatedAt()));
+            }
+            if (sendEmails) {
+                emailService.sendTicketCreatedEmails(savedTickets);
+            }
+
+            return savedTickets;
+        });
+    }
+
+    private Ticket newTicket(TicketCreateRequest request) {
+        return Ticket.builder()
+                .ticketNumber(ticketNumberGenerator.next())
                 .subject(request.getSubject())
                 .description(request.getDescription())
                 .priority(request.getPriority())
@@ -44,19 +120,17 @@ public class TicketService {
                 .customerEmail(request.getCustomerEmail())
                 .archived(false)
                 .build();
-
-        Ticket savedTicket = ticketRepository.save(ticket);
-        log.info("Created ticket {}", savedTicket.getTicketNumber());
-
-        emailService.sendTicketCreatedEmail(savedTicket);
-
-        return savedTicket;
     }
 
     @Transactional
     public Ticket updateTicket(Long id, TicketUpdateRequest request) {
+        return ticketMetrics.record("update", () -> update(id, request));
+    }
+
+    private Ticket update(Long id, TicketUpdateRequest request) {
         Ticket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
+        TicketSnapshot previous = TicketSnapshot.of(ticket);
 
         if (request.getSubject() != null) {
             ticket.setSubject(request.getSubject());
@@ -71,236 +145,236 @@ public class TicketService {
             ticket.setCategory(request.getCategory());
         }
 
-        return ticketRepository.save(ticket);
+        // Flushed here so a lost optimistic lock is reported as a conflict, not at commit
+        Ticket savedTicket = ticketRepository.saveAndFlush(ticket);
+        eventPublisher.publishEvent(TicketChangedEvent.of(TicketChangedEvent.Type.UPDATED, savedTicket, previous,
+                ZonedDateTime.now()));
+        return savedTicket;
     }
 
     @Transactional
     public Ticket assignToAgent(Long ticketId, String agentName) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + ticketId));
-
-        if (ticket.getStatus() != Ticket.Status.NEW) {
-            throw new RuntimeException("Only NEW tickets can be assigned. Current status: " + ticket.getStatus());
-        }
-
-        ticket.setAssignedToAgent(agentName);
-        ticket.setHandledByPod(podName);
-        ticket.setHandledByNode(nodeName);
-        ticket.setStatus(Ticket.Status.ASSIGNED);
-        ticket.setAssignedAt(ZonedDateTime.now());
+        return assign(ticketId, agentName);
+    }
 
-        try {
-            Ticket savedTicket = ticketRepository.save(ticket);
-            log.info("Ticket {} assigned to {} on pod {} (node {})",
-                    savedTicket.getTicketNumber(), agentName, podName, nodeName);
+    /**
+     * Assigns the highest-priority, oldest unassigned ticket to the agent. Tickets being claimed
+     * by other agents at the same moment are skipped rather than waited on, so concurrent
+     * claimers never collide. Returns empty when the queue has nothing left to claim.
+     */
+    @Transactional
+    public Optional<Ticket> claimNextTicket(String agentName) {
+        return ticketRepository.lockNextUnassignedId()
+                .map(ticketId -> assign(ticketId, agentName));
+    }
 
-            emailService.sendTicketAssignedEmail(savedTicket);
+    private Ticket assign(Long ticketId, String agentName) {
+        Ticket ticket = transition(ticketId, TicketTransition.ASSIGN,
+                new TicketTransition.Assignee(agentName, podName, nodeName));
+        log.info("Ticket {} assigned to {} on pod {} (node {})",
+                ticket.getTicketNumber(), agentName, podName, nodeName);
 
-            return savedTicket;
-        } catch (OptimisticLockException e) {
-            log.warn("Optimistic lock exception - ticket {} was already claimed by another agent",
-                    ticket.getTicketNumber());
-            throw new RuntimeException("This ticket was just claimed by another agent. Please select a different ticket.");
-        }
+        emailService.sendTicketAssignedEmail(ticket);
+        return ticket;
     }
 
     @Transactional
     public Ticket startProgress(Long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
-
-        if (ticket.getStatus() != Ticket.Status.ASSIGNED && ticket.getStatus() != Ticket.Status.WAITING_CUSTOMER) {
-            throw new RuntimeException("Can only start progress on ASSIGNED or WAITING_CUSTOMER tickets");
-        }
-
-        ticket.setStatus(Ticket.Status.IN_PROGRESS);
-        return ticketRepository.save(ticket);
+        return transition(ticketId, TicketTransition.START_PROGRESS, null);
     }
 
     @Transactional
     public Ticket requestCustomerInfo(Long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
-
-        if (ticket.getStatus() != Ticket.Status.IN_PROGRESS) {
-            throw new RuntimeException("Can only request info for IN_PROGRESS tickets");
-        }
-
-        ticket.setStatus(Ticket.Status.WAITING_CUSTOMER);
-        Ticket savedTicket = ticketRepository.save(ticket);
-
-        emailService.sendCustomerInfoRequestEmail(savedTicket);
-
-        return savedTicket;
+        Ticket ticket = transition(ticketId, TicketTransition.REQUEST_INFO, null);
+        emailService.sendCustomerInfoRequestEmail(ticket);
+        return ticket;
     }
 
     @Transactional
     public Ticket reopen(Long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
-
-        if (ticket.getStatus() != Ticket.Status.WAITING_CUSTOMER &&
-            ticket.getStatus() != Ticket.Status.RESOLVED) {
-            throw new RuntimeException("Can only reopen WAITING_CUSTOMER or RESOLVED tickets");
-        }
-
-        ticket.setStatus(Ticket.Status.IN_PROGRESS);
-        return ticketRepository.save(ticket);
+        return transition(ticketId, TicketTransition.REOPEN, null);
     }
 
     @Transactional
     public Ticket resolve(Long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
-
-        if (ticket.getStatus() != Ticket.Status.IN_PROGRESS) {
-            throw new RuntimeException("Can only resolve IN_PROGRESS tickets");
-        }
-
-        ticket.setStatus(Ticket.Status.RESOLVED);
-        ticket.setResolvedAt(ZonedDateTime.now());
-
-        Ticket savedTicket = ticketRepository.save(ticket);
-
-        emailService.sendTicketResolvedEmail(savedTicket);
-
-        return savedTicket;
+        Ticket ticket = transition(ticketId, TicketTransition.RESOLVE, null);
+        emailService.sendTicketResolvedEmail(ticket);
+        return ticket;
     }
 
     @Transactional
     public Ticket close(Long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
-
-        if (ticket.getStatus() != Ticket.Status.RESOLVED) {
-            throw new RuntimeException("Can only close RESOLVED tickets");
-        }
+        Ticket ticket = transition(ticketId, TicketTransition.CLOSE, null);
+        emailService.sendTicketClosedEmail(ticket);
+        return ticket;
+    }
 
-        ticket.setStatus(Ticket.Status.CLOSED);
+    // The ticket leaves the live table in the same transaction (see TicketArchiver)
+    @Transactional
+    public Ticket archive(Long ticketId) {
+        Ticket ticket = transition(ticketId, TicketTransition.ARCHIVE, null);
+        ticketRepository.moveToArchive(ticketId);
+        return ticket;
+    }
 
-        Ticket savedTicket = ticketRepository.save(ticket);
+    /**
+     * Applies a workflow transition with a single conditional UPDATE; whether a row matched
+     * decides success, so there is no read-check-write race. The returned ticket is detached.
+     */
+    private Ticket transition(Long ticketId, TicketTransition transition, TicketTransition.Assignee assignee) {
+        return ticketMetrics.record(transition.name().toLowerCase(Locale.ROOT),
+                () -> applyTransition(ticketId, transition, assignee));
+    }
 
-        emailService.sendTicketClosedEmail(savedTicket);
+    private Ticket applyTransition(Long ticketId, TicketTransition transition, TicketTransition.Assignee assignee) {
+        ZonedDateTime now = ZonedDateTime.now();
+        Ticket ticket = ticketRepository.transition(ticketId, transition, now, assignee)
+                .orElseThrow(() -> rejected(ticketId, transition));
 
-        return savedTicket;
+        TicketSnapshot previous = TicketSnapshot.of(ticket);
+        transition.applyTo(ticket, now, assignee);
+        eventPublisher.publishEvent(TicketChangedEvent.of(eventType(transition), ticket, previous, now));
+        return ticket;
     }
 
-    @Transactional
-    public Ticket archive(Long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
-
-        if (ticket.getStatus() != Ticket.Status.CLOSED) {
-            throw new RuntimeException("Can only archive CLOSED tickets");
-        }
+    // Only reached on the failure path, so the extra lookup costs nothing in the common case
+    private RuntimeException rejected(Long ticketId, TicketTransition transition) {
+        Ticket.Status current = ticketRepository.findStatusById(ticketId)
+                .or(() -> ticketRepository.findArchivedById(ticketId).map(Ticket::getStatus))
+                .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + ticketId));
+        log.warn("Rejected {} on ticket {} in status {}", transition, ticketId, current);
+        return new TicketConflictException(transition.describeConflict(current));
+    }
 
-        ticket.setArchived(true);
-        ticket.setStatus(Ticket.Status.ARCHIVED);
-        return ticketRepository.save(ticket);
+    static TicketChangedEvent.Type eventType(TicketTransition transition) {
+        return switch (transition) {
+            case ASSIGN -> TicketChangedEvent.Type.ASSIGNED;
+            case START_PROGRESS -> TicketChangedEvent.Type.STARTED;
+            case REQUEST_INFO -> TicketChangedEvent.Type.INFO_REQUESTED;
+            case REOPEN -> TicketChangedEvent.Type.REOPENED;
+            case RESOLVE -> TicketChangedEvent.Type.RESOLVED;
+            case CLOSE -> TicketChangedEvent.Type.CLOSED;
+            case ARCHIVE -> TicketChangedEvent.Type.ARCHIVED;
+        };
     }
 
-    @Transactional(readOnly = true)
+    // Served from TicketCache; archived tickets come from tickets_archive. The result is a
+    // detached copy, so changes to it are never saved. Misses load in a read-write transaction
+    // so they hit the primary: a lagging replica would put the version just evicted back.
     public Ticket getTicketById(Long id) {
-        return ticketRepository.findById(id)
+        return ticketCache.get(id, key -> transactionTemplate.execute(status -> ticketRepository.findById(key)
+                        .or(() -> ticketRepository.findArchivedById(key))))
                 .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
     }
 
-    @Transactional(readOnly = true)
-    public List<Ticket> getAllActiveTickets() {
-        return ticketRepository.findByArchivedFalseOrderByCreatedAtDesc();
+    // Every recorded change of the ticket, oldest first. Each status change carries the time
+    // since the ticket entered the status it left, which a later UPDATED does not reset.
+    public List<TicketHistoryEntry> getTicketHistory(Long id) {
+        List<TicketHistoryEntry> history = new ArrayList<>();
+        ZonedDateTime statusSince = null;
+        for (TicketEventEntry event : ticketEventRecorder.getEvents(id)) {
+            if (event.fromStatus() == event.toStatus()) {
+                history.add(new TicketHistoryEntry(event, null));
+                continue;
+            }
+            Duration inPreviousStatus = statusSince != null && event.fromStatus() != null
+                    ? Duration.between(statusSince, event.occurredAt())
+                    : null;
+            history.add(new TicketHistoryEntry(event, inPreviousStatus));
+            statusSince = event.occurredAt();
+        }
+        return history;
     }
 
     @Transactional(readOnly = true)
-    public List<Ticket> getUnassignedTickets() {
-        return ticketRepository.findByStatusAndArchivedFalseOrderByPriorityDescCreatedAtAsc(Ticket.Status.NEW);
+    public List<TicketQueueEntry> getUnassignedTickets() {
+        return ticketRepository.findQueue();
     }
 
     @Transactional(readOnly = true)
-    public List<Ticket> getTicketsByStatus(Ticket.Status status) {
-        return ticketRepository.findByStatusAndArchivedFalseOrderByCreatedAtDesc(status);
+    public TicketPage getActiveTicketsPage(String cursor, Integer size) {
+        return toPage(ticketRepository.findByArchivedFalseOrderByCreatedAtDescIdDesc(
+                TicketCursor.positionOf(cursor), pageLimit(size)));
     }
 
     @Transactional(readOnly = true)
-    public List<Ticket> getTicketsByPriority(Ticket.Priority priority) {
-        return ticketRepository.findByPriorityAndArchivedFalseOrderByCreatedAtDesc(priority);
+    public TicketPage getTicketsByStatusPage(Ticket.Status status, String cursor, Integer size) {
+        return toPage(ticketRepository.findByStatusAndArchivedFalseOrderByCreatedAtDescIdDesc(
+                status, TicketCursor.positionOf(cursor), pageLimit(size)));
     }
 
     @Transactional(readOnly = true)
-    public List<Ticket> getTicketsByCategory(Ticket.Category category) {
-        return ticketRepository.findByCategoryAndArchivedFalseOrderByCreatedAtDesc(category);
+    public TicketPage getTicketsByPriorityPage(Ticket.Priority priority, String cursor, Integer size) {
+        return toPage(ticketRepository.findByPriorityAndArchivedFalseOrderByCreatedAtDescIdDesc(
+                priority, TicketCursor.positionOf(cursor), pageLimit(size)));
     }
 
     @Transactional(readOnly = true)
-    public List<Ticket> getTicketsByAgent(String agentName) {
-        return ticketRepository.findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDesc(agentName);
+    public TicketPage getTicketsByCategoryPage(Ticket.Category category, String cursor, Integer size) {
+        return toPage(ticketRepository.findByCategoryAndArchivedFalseOrderByCreatedAtDescIdDesc(
+                category, TicketCursor.positionOf(cursor), pageLimit(size)));
     }
 
     @Transactional(readOnly = true)
-    public List<Ticket> getArchivedTickets() {
-        return ticketRepository.findByArchivedTrueOrderByCreatedAtDesc();
+    public TicketPage getTicketsByAgentPage(String agentName, String cursor, Integer size) {
+        return toPage(ticketRepository.findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDescIdDesc(
+                agentName, TicketCursor.positionOf(cursor), pageLimit(size)));
     }
 
+    // Offset paging is fine here: nobody reads past the first few pages of search results, and
+    // app.search.max-results keeps anyone from asking the database to rank its way to page 10000
     @Transactional(readOnly = true)
-    public Map<String, Object> getStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-
-        long totalActive = ticketRepository.findByArchivedFalseOrderByCreatedAtDesc().size();
-        long totalArchived = ticketRepository.findByArchivedTrueOrderByCreatedAtDesc().size();
-
-        stats.put("totalActive", totalActive);
-        stats.put("totalArchived", totalArchived);
-
-        Map<Ticket.Status, Long> statusCounts = ticketRepository.countByStatusGrouped().stream()
-                .collect(Collectors.toMap(
-                        arr -> (Ticket.Status) arr[0],
-                        arr -> (Long) arr[1]
-                ));
-        stats.put("byStatus", statusCounts);
-
-        Map<Ticket.Priority, Long> priorityCounts = ticketRepository.countByPriorityGrouped().stream()
-                .collect(Collectors.toMap(
-                        arr -> (Ticket.Priority) arr[0],
-                        arr -> (Long) arr[1]
-                ));
-        stats.put("byPriority", priorityCounts);
-
-        Map<Ticket.Category, Long> categoryCounts = ticketRepository.countByCategoryGrouped().stream()
-                .collect(Collectors.toMap(
-                        arr -> (Ticket.Category) arr[0],
-                        arr -> (Long) arr[1]
-                ));
-        stats.put("byCategory", categoryCounts);
-
-        Map<String, Long> podCounts = ticketRepository.countByPodGrouped().stream()
-                .collect(Collectors.toMap(
-                        arr -> (String) arr[0],
-                        arr -> (Long) arr[1]
-                ));
-        stats.put("byPod", podCounts);
+    public TicketSearchPage search(String query, Integer page, Integer size) {
+        int limit = pageLimit(size).max();
+        int pageNumber = page != null ? Math.max(0, page) : 0;
+        long offset = (long) pageNumber * limit;
+
+        List<TicketSummary> results = List.of();
+        boolean hasNext = false;
+        if (offset < maxSearchResults) {
+            int fetch = (int) Math.min(limit, maxSearchResults - offset);
+            // One extra row tells whether there is a next page
+            results = ticketSearch.search(query, (int) offset, fetch + 1);
+            hasNext = results.size() > fetch && offset + fetch < maxSearchResults;
+            if (results.size() > fetch) {
+                results = results.subList(0, fetch);
+            }
+        }
+        return TicketSearchPage.builder()
+                .query(query)
+                .results(results)
+                .page(pageNumber)
+                .size(limit)
+                .hasNext(hasNext)
+                .build();
+    }
 
-        return stats;
+    // Served from in-memory counters; see TicketCounters for how they are kept in sync
+    public Map<String, Object> getStatistics() {
+        return ticketCounters.snapshot().toMap();
     }
 
     @Transactional(readOnly = true)
     public Map<String, Object> getAgentStatistics(String agentName) {
         Map<String, Object> stats = new HashMap<>();
 
-        List<Ticket> agentTickets = ticketRepository.findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDesc(agentName);
+        List<TicketRepository.ResolutionTimes> agentTickets = ticketRepository
+                .findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDesc(agentName, TicketRepository.ResolutionTimes.class);
 
         stats.put("totalAssigned", agentTickets.size());
         stats.put("resolved", agentTickets.stream()
-                .filter(t -> t.getStatus() == Ticket.Status.RESOLVED || t.getStatus() == Ticket.Status.CLOSED)
+                .filter(t -> t.status() == Ticket.Status.RESOLVED || t.status() == Ticket.Status.CLOSED)
                 .count());
         stats.put("inProgress", agentTickets.stream()
-                .filter(t -> t.getStatus() == Ticket.Status.IN_PROGRESS)
+                .filter(t -> t.status() == Ticket.Status.IN_PROGRESS)
                 .count());
         stats.put("waitingCustomer", agentTickets.stream()
-                .filter(t -> t.getStatus() == Ticket.Status.WAITING_CUSTOMER)
+                .filter(t -> t.status() == Ticket.Status.WAITING_CUSTOMER)
                 .count());
 
         OptionalDouble avgResolutionTime = agentTickets.stream()
-                .filter(t -> t.getResolvedAt() != null && t.getAssignedAt() != null)
-                .mapToLong(t -> java.time.Duration.between(t.getAssignedAt(), t.getResolvedAt()).toMinutes())
+                .filter(t -> t.resolvedAt() != null && t.assignedAt() != null)
+                .mapToLong(t -> java.time.Duration.between(t.assignedAt(), t.resolvedAt()).toMinutes())
                 .average();
 
         stats.put("avgResolutionTimeMinutes", avgResolutionTime.isPresent() ? avgResolutionTime.getAsDouble() : 0.0);
@@ -310,9 +384,19 @@ public class TicketService {
         return stats;
     }
 
-    private String generateTicketNumber() {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String random = String.format("%04d", new Random().nextInt(10000));
-        return "TKT-" + timestamp.substring(timestamp.length() - 8) + "-" + random;
+    private Limit pageLimit(Integer size) {
+        int requested = size != null ? size : defaultPageSize;
+        return Limit.of(Math.max(1, Math.min(requested, maxPageSize)));
+    }
+
+    private TicketPage toPage(Window<TicketSummary> window) {
+        List<TicketSummary> tickets = window.getContent();
+        String nextCursor = window.hasNext() && !tickets.isEmpty()
+                ? TicketCursor.of(tickets.get(tickets.size() - 1)).encode()
+                : null;
+        return TicketPage.builder()
+                .tickets(tickets)
+                .nextCursor(nextCursor)
+                .build();
     }
 }
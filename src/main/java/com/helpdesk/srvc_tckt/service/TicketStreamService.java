@@ -0,0 +1,216 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes queue and dashboard changes to open browsers over Server-Sent Events.
+ * <p>
+ * Every connection has a bounded buffer drained by a small dispatch pool, so a slow client
+ * only ever holds {@code app.sse.buffer-size} events. When its buffer overflows the pending
+ * events are dropped and the client is told to resync (reload) instead. Counter updates are
+ * coalesced to the latest value rather than queued. Frames are serialized once per event and
+ * shared by all subscribers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketStreamService {
+
+    private final TicketCounters ticketCounters;
+    private final JsonMapper jsonMapper;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ExecutorService dispatcher;
+
+    @Value("${app.sse.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.sse.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.sse.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${app.sse.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    @PostConstruct
+    void start() {
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, Thread.ofPlatform()
+                .name("sse-dispatch-", 0)
+                .daemon(true)
+                .factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        dispatcher.shutdownNow();
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxConnections) {
+            throw new IllegalStateException("Too many live update connections");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Send the current counters right away so the page starts from fresh numbers
+        subscriber.updateCounters(countersFrame());
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Runs after TicketCounters has applied the same event
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Ticket ticket = event.ticket();
+        String eventName = null;
+        Object payload = null;
+        if (event.type() == TicketChangedEvent.Type.CREATED) {
+            eventName = "ticket-created";
+            payload = new TicketCreatedPayload(ticket.getId(), ticket.getTicketNumber(), ticket.getSubject(),
+                    ticket.getPriority(), ticket.getCategory(), ticket.getCustomerName(), ticket.getCreatedAt());
+        } else if (event.type() == TicketChangedEvent.Type.ASSIGNED) {
+            eventName = "ticket-claimed";
+            payload = new TicketClaimedPayload(ticket.getId(), ticket.getTicketNumber(), ticket.getAssignedToAgent());
+        }
+
+        Set<DataWithMediaType> ticketFrame = eventName != null
+                ? frame(eventName, jsonMapper.writeValueAsString(payload))
+                : null;
+        Set<DataWithMediaType> counters = countersFrame();
+        for (Subscriber subscriber : subscribers) {
+            if (ticketFrame != null) {
+                subscriber.offer(ticketFrame);
+            }
+            subscriber.updateCounters(counters);
+        }
+    }
+
+    // Doubles as a keep-alive and lets pages converge on changes made by other replicas
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> counters = countersFrame();
+        subscribers.forEach(subscriber -> subscriber.updateCounters(counters));
+    }
+
+    private Set<DataWithMediaType> countersFrame() {
+        return frame("counters", jsonMapper.writeValueAsString(ticketCounters.snapshot().toMap()));
+    }
+
+    private static Set<DataWithMediaType> frame(String name, String json) {
+        return SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON).build();
+    }
+
+    record TicketCreatedPayload(Long id, String ticketNumber, String subject, Ticket.Priority priority,
+                                Ticket.Category category, String customerName, ZonedDateTime createdAt) {
+    }
+
+    record TicketClaimedPayload(Long id, String ticketNumber, String agent) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicReference<Set<DataWithMediaType>> pendingCounters = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (!buffer.offer(frame)) {
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        void updateCounters(Set<DataWithMediaType> frame) {
+            pendingCounters.set(frame);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (overflowed) {
+                    overflowed = false;
+                    buffer.clear();
+                    emitter.send(frame("resync", "{}"));
+                }
+                Set<DataWithMediaType> frame;
+                while ((frame = buffer.poll()) != null) {
+                    emitter.send(frame);
+                }
+                Set<DataWithMediaType> counters = pendingCounters.getAndSet(null);
+                if (counters != null) {
+                    emitter.send(counters);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping live update subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                buffer.clear();
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+
+            if (subscribers.contains(this) && (!buffer.isEmpty() || overflowed || pendingCounters.get() != null)) {
+                schedule();
+            }
+        }
+    }
+}
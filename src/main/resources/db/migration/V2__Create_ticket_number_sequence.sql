@@ -0,0 +1,3 @@
+-- Ticket numbers for app.ticket-number.mode=sequence. Every nextval reserves a block of
+-- INCREMENT BY numbers for one replica, so raise it to hit the sequence less often.
+CREATE SEQUENCE ticket_number_seq START WITH 1 INCREMENT BY 100;
@@ -0,0 +1,21 @@
+-- Customer emails, written in the same transaction as the ticket change and sent later
+-- by EmailOutboxDispatcher. locked_by/locked_until is a lease: a row whose lease has
+-- expired (the claiming pod died mid-send) becomes claimable again.
+CREATE TABLE email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    ticket_id BIGINT,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT DEFAULT 0 NOT NULL,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_by VARCHAR(255),
+    locked_until TIMESTAMP WITH TIME ZONE,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    sent_at TIMESTAMP WITH TIME ZONE
+);
+
+-- The dispatcher polls for due PENDING rows
+CREATE INDEX idx_email_outbox_due ON email_outbox(status, next_attempt_at);
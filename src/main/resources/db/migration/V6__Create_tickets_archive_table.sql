@@ -0,0 +1,26 @@
+-- Cold storage for archived tickets. TicketService.archive moves a ticket here in the same
+-- transaction, and TicketArchiver sweeps any archived rows still in tickets (e.g. those
+-- archived before this table existed) in chunks, so the live table and its indexes only
+-- hold tickets that are still being worked on. Ids are kept; columns mirror tickets.
+CREATE TABLE tickets_archive (
+    id BIGINT PRIMARY KEY,
+    ticket_number VARCHAR(50) UNIQUE NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    description TEXT NOT NULL,
+    priority VARCHAR(20) NOT NULL,
+    category VARCHAR(20) NOT NULL,
+    status VARCHAR(30) NOT NULL,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_email VARCHAR(255) NOT NULL,
+    assigned_to_agent VARCHAR(255),
+    handled_by_pod VARCHAR(255),
+    handled_by_node VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    assigned_at TIMESTAMP WITH TIME ZONE,
+    resolved_at TIMESTAMP WITH TIME ZONE,
+    archived BOOLEAN DEFAULT TRUE NOT NULL,
+    version BIGINT DEFAULT 0,
+    archived_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_tickets_archive_created_at ON tickets_archive(created_at DESC);
@@ -0,0 +1,16 @@
+-- Append-only history of ticket changes, written in batches by TicketEventRecorder. Rows are
+-- never updated or deleted. There is no foreign key to tickets, so the history of a ticket
+-- stays put when the ticket moves to tickets_archive.
+CREATE TABLE ticket_events (
+    id BIGSERIAL PRIMARY KEY,
+    ticket_id BIGINT NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    from_status VARCHAR(30),
+    to_status VARCHAR(30) NOT NULL,
+    agent VARCHAR(255),
+    pod VARCHAR(255),
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- The detail page reads one ticket's events in order
+CREATE INDEX idx_ticket_events_ticket ON ticket_events(ticket_id, occurred_at, id);
@@ -128,24 +128,176 @@ document.addEventListener('DOMContentLoaded', function() {
         });
     });
 
-    // Auto-refresh for queue page (every 30 seconds)
-    if (window.location.pathname.includes('/queue') || window.location.pathname === '/') {
-        let refreshInterval = setInterval(() => {
-            const lastActivity = Date.now() - (window.lastUserActivity || Date.now());
-
-            // Only refresh if user has been inactive for 30+ seconds
-            if (lastActivity > 30000) {
-                console.log('Auto-refreshing page...');
+    // Live updates for dashboard and queue (Server-Sent Events)
+    const liveQueue = document.querySelector('[data-live-queue]');
+    const liveStats = document.querySelectorAll('[data-stat]');
+    const priorityRank = { URGENT: 0, HIGH: 1, MEDIUM: 2, LOW: 3 };
+
+    // Track user activity
+    ['mousedown', 'keydown', 'scroll', 'touchstart'].forEach(event => {
+        document.addEventListener(event, () => {
+            window.lastUserActivity = Date.now();
+        });
+    });
+
+    function userIsIdle() {
+        return Date.now() - (window.lastUserActivity || 0) > 30000;
+    }
+
+    // Reload only once the user has been inactive for 30+ seconds
+    let reloadPending = false;
+    function reloadWhenIdle() {
+        if (reloadPending) {
+            return;
+        }
+        reloadPending = true;
+        const check = setInterval(() => {
+            if (userIsIdle()) {
+                clearInterval(check);
+                console.log('Reloading page to resync...');
                 location.reload();
             }
-        }, 60000); // Check every 60 seconds
+        }, 5000);
+    }
 
-        // Track user activity
-        ['mousedown', 'keydown', 'scroll', 'touchstart'].forEach(event => {
-            document.addEventListener(event, () => {
-                window.lastUserActivity = Date.now();
-            });
+    function applyCounters(counters) {
+        liveStats.forEach(element => {
+            const [group, key] = element.dataset.stat.split('.');
+            const value = key ? (counters[group] || {})[key] : counters[group];
+            element.textContent = value || 0;
+        });
+    }
+
+    function updateEmptyState() {
+        const empty = document.querySelector('[data-queue-empty]');
+        if (empty) {
+            empty.hidden = liveQueue.querySelector('[data-ticket-id]') !== null;
+        }
+    }
+
+    function buildTicketCard(ticket) {
+        const card = document.createElement('div');
+        const priority = ticket.priority.toLowerCase();
+        card.className = 'ticket-card priority-' + priority;
+        card.dataset.ticketId = ticket.id;
+        card.dataset.priority = ticket.priority;
+
+        const header = document.createElement('div');
+        header.className = 'ticket-header';
+        const number = document.createElement('div');
+        number.className = 'ticket-number';
+        const link = document.createElement('a');
+        link.href = '/tickets/' + ticket.id;
+        link.textContent = ticket.ticketNumber;
+        number.appendChild(link);
+        const badges = document.createElement('div');
+        badges.className = 'ticket-badges';
+        [['badge badge-priority badge-' + priority, ticket.priority],
+         ['badge badge-category', ticket.category]].forEach(([className, text]) => {
+            const badge = document.createElement('span');
+            badge.className = className;
+            badge.textContent = text;
+            badges.appendChild(badge);
         });
+        header.append(number, badges);
+
+        const subject = document.createElement('div');
+        subject.className = 'ticket-subject';
+        subject.textContent = ticket.subject;
+
+        const meta = document.createElement('div');
+        meta.className = 'ticket-meta';
+        meta.textContent = ticket.customerName + ' • ' + new Date(ticket.createdAt).toLocaleString();
+
+        card.append(header, subject, meta);
+
+        const csrfToken = document.querySelector('meta[name="_csrf"]');
+        const csrfParameter = document.querySelector('meta[name="_csrf_parameter"]');
+        if (csrfToken && csrfParameter) {
+            const actions = document.createElement('div');
+            actions.className = 'ticket-actions';
+            const form = document.createElement('form');
+            form.method = 'post';
+            form.action = '/tickets/' + ticket.id + '/assign';
+            form.style.display = 'inline';
+            const token = document.createElement('input');
+            token.type = 'hidden';
+            token.name = csrfParameter.content;
+            token.value = csrfToken.content;
+            const button = document.createElement('button');
+            button.type = 'submit';
+            button.className = 'btn btn-primary';
+            button.textContent = 'Assign to Me';
+            form.append(token, button);
+            actions.appendChild(form);
+            card.appendChild(actions);
+        }
+        return card;
+    }
+
+    function insertTicket(ticket) {
+        if (liveQueue.querySelector('[data-ticket-id="' + ticket.id + '"]')) {
+            return;
+        }
+        // Newest ticket goes last within its priority group
+        const rank = priorityRank[ticket.priority];
+        const before = Array.from(liveQueue.querySelectorAll('[data-ticket-id]'))
+            .find(card => priorityRank[card.dataset.priority] > rank);
+        liveQueue.insertBefore(buildTicketCard(ticket), before || null);
+        updateEmptyState();
+    }
+
+    function removeTicket(ticketId) {
+        const card = liveQueue.querySelector('[data-ticket-id="' + ticketId + '"]');
+        if (card) {
+            card.remove();
+            updateEmptyState();
+        }
+    }
+
+    function fallBackToPolling() {
+        setInterval(() => {
+            if (userIsIdle()) {
+                location.reload();
+            }
+        }, 60000);
+    }
+
+    if (liveQueue || liveStats.length > 0) {
+        if (!window.EventSource) {
+            fallBackToPolling();
+        } else {
+            const source = new EventSource('/tickets/stream');
+            let lastUnassigned = null;
+
+            source.addEventListener('counters', e => {
+                const counters = JSON.parse(e.data);
+                applyCounters(counters);
+
+                // Queue changed somewhere we were not told about (e.g. on another replica)
+                const unassigned = (counters.byStatus || {}).NEW || 0;
+                if (liveQueue && lastUnassigned !== null && unassigned !== lastUnassigned
+                        && liveQueue.querySelectorAll('[data-ticket-id]').length !== unassigned) {
+                    reloadWhenIdle();
+                }
+                lastUnassigned = unassigned;
+            });
+
+            if (liveQueue) {
+                source.addEventListener('ticket-created', e => insertTicket(JSON.parse(e.data)));
+                source.addEventListener('ticket-claimed', e => removeTicket(JSON.parse(e.data).id));
+            }
+
+            source.addEventListener('resync', () => reloadWhenIdle());
+
+            source.onerror = () => {
+                // The browser retries on its own unless the server refused the stream
+                if (source.readyState === EventSource.CLOSED) {
+                    console.log('Live updates unavailable, falling back to periodic refresh');
+                    fallBackToPolling();
+                }
+            };
+        }
     }
 
     // Dynamic ticket age calculation
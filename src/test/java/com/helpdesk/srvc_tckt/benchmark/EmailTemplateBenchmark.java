@@ -0,0 +1,125 @@
+package com.helpdesk.srvc_tckt.benchmark;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.service.EmailModel;
+import com.helpdesk.srvc_tckt.service.EmailTemplate;
+import com.helpdesk.srvc_tckt.service.EmailTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering one "ticket created" email: the old String.format over a text block
+ * against the compiled template, text only and with the HTML variant. Every ticket write
+ * renders one email, so this is per-notification overhead; run with {@code -prof gc} to
+ * compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private Ticket ticket;
+    private EmailModel model;
+    private EmailTemplate template;
+    private EmailTemplate textOnlyTemplate;
+
+    @Setup
+    public void setUp() {
+        ticket = Ticket.builder()
+                .ticketNumber("TKT-06JJPFA4YPC00")
+                .subject("Cannot log in after password reset")
+                .priority(Ticket.Priority.HIGH)
+                .category(Ticket.Category.ACCOUNT)
+                .status(Ticket.Status.NEW)
+                .customerName("Alex Morgan")
+                .customerEmail("alex@example.com")
+                .build();
+        model = EmailModel.of(ticket);
+
+        EmailTemplates templates = new EmailTemplates(new DefaultResourceLoader(), "");
+        template = templates.get(EmailTemplates.Name.TICKET_CREATED);
+        textOnlyTemplate = EmailTemplate.compile("ticket-created", """
+                Subject: Ticket Created: {{ticketNumber}}
+
+                Hello {{customerName}},
+
+                Your support ticket has been created successfully.
+
+                Ticket Number: {{ticketNumber}}
+                Subject: {{subject}}
+                Priority: {{priority}}
+                Category: {{category}}
+                Status: {{status}}
+
+                We will review your ticket and assign it to an agent shortly.
+                You will receive email updates as your ticket progresses.
+
+                Thank you for contacting support!
+
+                ---
+                HelpDesk Support Team
+                """, null);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return "Ticket Created: " + ticket.getTicketNumber() + String.format("""
+                Hello %s,
+
+                Your support ticket has been created successfully.
+
+                Ticket Number: %s
+                Subject: %s
+                Priority: %s
+                Category: %s
+                Status: %s
+
+                We will review your ticket and assign it to an agent shortly.
+                You will receive email updates as your ticket progresses.
+
+                Thank you for contacting support!
+
+                ---
+                HelpDesk Support Team
+                """,
+                ticket.getCustomerName(),
+                ticket.getTicketNumber(),
+                ticket.getSubject(),
+                ticket.getPriority(),
+                ticket.getCategory(),
+                ticket.getStatus());
+    }
+
+    @Benchmark
+    public EmailTemplate.Rendered compiledText() {
+        return textOnlyTemplate.render(model);
+    }
+
+    @Benchmark
+    public EmailTemplate.Rendered compiledTextAndHtml() {
+        return template.render(model);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
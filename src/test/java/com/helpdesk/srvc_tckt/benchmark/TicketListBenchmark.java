@@ -0,0 +1,164 @@
+package com.helpdesk.srvc_tckt.benchmark;
+
+import com.helpdesk.srvc_tckt.SrvcTcktApplication;
+import com.helpdesk.srvc_tckt.dto.TicketPage;
+import com.helpdesk.srvc_tckt.dto.TicketQueueEntry;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import com.helpdesk.srvc_tckt.service.TicketService;
+import jakarta.persistence.EntityManager;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a ticket list page and the unassigned queue cost per request: the managed entities the
+ * views used to load (description included) against the summary projections they use now.
+ * Runs the application without the web layer against an H2 database seeded with
+ * {@code rows} tickets, each with a description of {@code descriptionLength} characters.
+ * The database is reached through H2's TCP server, so every column is decoded from the wire
+ * as it would be from PostgreSQL; an embedded database would hand over its own strings.
+ * <p>
+ * The number to compare is {@code gc.alloc.rate.norm}, bytes allocated per call, which
+ * {@link #main} reports through the GC profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketListBenchmark {
+
+    private static final String DATABASE = "ticket_list_benchmark";
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private static final String ENTITY_QUEUE_JPQL = """
+            SELECT t FROM Ticket t WHERE t.status = :status AND t.archived = false
+            ORDER BY t.priority DESC, t.createdAt ASC
+            """;
+
+    @Param("5000")
+    private int rows;
+
+    @Param("2000")
+    private int descriptionLength;
+
+    @Param("25")
+    private int pageSize;
+
+    private Server database;
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private TicketRepository ticketRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // The server only serves databases that already exist
+        DriverManager.getConnection("jdbc:h2:mem:" + DATABASE + ";DB_CLOSE_DELAY=-1", "sa", "").close();
+        database = Server.createTcpServer("-tcpPort", "0").start();
+        context = new SpringApplicationBuilder(SrvcTcktApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:" + DATABASE,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        // application.properties logs every statement and its bindings
+                        "--logging.level.com.helpdesk.srvc_tckt=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--app.archive.initial-delay=PT1H",
+                        "--app.email.outbox.poll-interval=PT1H",
+                        "--app.stats.reconcile-interval=PT1H");
+        ticketService = context.getBean(TicketService.class);
+        ticketRepository = context.getBean(TicketRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        // Every fourth ticket is still NEW, so the queue holds a quarter of the table
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                     customer_name, customer_email, created_at, archived, version)
+                SELECT X, 'TKT-BENCH-' || X, 'Cannot log in after password reset #' || X, REPEAT('x', ?),
+                       CASEWHEN(MOD(X, 4) = 0, 'URGENT', 'LOW'), 'ACCOUNT',
+                       CASEWHEN(MOD(X, 4) = 0, 'NEW', 'IN_PROGRESS'),
+                       'Customer ' || X, 'customer' || X || '@example.com',
+                       DATEADD('SECOND', -X, CURRENT_TIMESTAMP), FALSE, 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, descriptionLength, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        database.stop();
+        // DB_CLOSE_DELAY=-1 keeps the database until it is shut down explicitly
+    }
+
+    // The same keyset query the list page ran before, returning entities
+    @Benchmark
+    public Window<Ticket> entityPage() {
+        Example<Ticket> active = Example.of(Ticket.builder().archived(false).build());
+        return readOnly.execute(status -> ticketRepository.findBy(active, query -> query
+                .sortBy(NEWEST_FIRST)
+                .limit(pageSize)
+                .scroll(ScrollPosition.keyset())));
+    }
+
+    @Benchmark
+    public TicketPage summaryPage() {
+        return ticketService.getActiveTicketsPage(null, pageSize);
+    }
+
+    @Benchmark
+    public List<Ticket> entityQueue() {
+        return readOnly.execute(status -> entityManager.createQuery(ENTITY_QUEUE_JPQL, Ticket.class)
+                .setParameter("status", Ticket.Status.NEW)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<TicketQueueEntry> summaryQueue() {
+        return ticketService.getUnassignedTickets();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TicketListBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
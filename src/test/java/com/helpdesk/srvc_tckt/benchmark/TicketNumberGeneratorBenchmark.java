@@ -0,0 +1,78 @@
+package com.helpdesk.srvc_tckt.benchmark;
+
+import com.helpdesk.srvc_tckt.service.SequenceBlockTicketNumberGenerator;
+import com.helpdesk.srvc_tckt.service.SnowflakeTicketNumberGenerator;
+import com.helpdesk.srvc_tckt.service.TicketNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the ticket number generators against the old timestamp + Random scheme,
+ * single-threaded and with four contending threads. The sequence generator draws its
+ * blocks from an in-memory counter, so this measures the generator, not the database.
+ * Run with {@code -prof gc} to compare allocation per number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketNumberGeneratorBenchmark {
+
+    private final TicketNumberGenerator snowflake = new SnowflakeTicketNumberGenerator(1);
+
+    private final AtomicLong sequence = new AtomicLong(1);
+    private final TicketNumberGenerator sequenceBlock =
+            new SequenceBlockTicketNumberGenerator(() -> sequence.getAndAdd(100), 100);
+
+    @Benchmark
+    public String legacy() {
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        String random = String.format("%04d", new Random().nextInt(10000));
+        return "TKT-" + timestamp.substring(timestamp.length() - 8) + "-" + random;
+    }
+
+    @Benchmark
+    public String snowflake() {
+        return snowflake.next();
+    }
+
+    @Benchmark
+    public String sequenceBlock() {
+        return sequenceBlock.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String snowflakeContended() {
+        return snowflake.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String sequenceBlockContended() {
+        return sequenceBlock.next();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TicketNumberGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
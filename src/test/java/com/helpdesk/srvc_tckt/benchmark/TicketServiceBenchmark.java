@@ -0,0 +1,198 @@
+package com.helpdesk.srvc_tckt.benchmark;
+
+import com.helpdesk.srvc_tckt.SrvcTcktApplication;
+import com.helpdesk.srvc_tckt.dto.TicketCreateRequest;
+import com.helpdesk.srvc_tckt.dto.TicketQueueEntry;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.service.FakeSmtpServer;
+import com.helpdesk.srvc_tckt.service.TicketCounters;
+import com.helpdesk.srvc_tckt.service.TicketNumberGenerator;
+import com.helpdesk.srvc_tckt.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of the TicketService operations behind the dashboard, the queue and an agent's day,
+ * against an embedded H2 database seeded with {@code rows} tickets. A tenth of the seeded
+ * tickets are unassigned; the rest are spread over {@value #AGENTS} agents in every later
+ * status. Operations that move a ticket through its lifecycle get a freshly inserted NEW
+ * ticket for each call, outside the measured time. Customer emails go to a local fake SMTP
+ * server, so the outbox dispatcher runs alongside as it would in production instead of
+ * retrying against a relay that is not there.
+ * <p>
+ * Run through the {@code benchmark} Maven profile, which writes JSON results to
+ * {@code target/jmh-result.json} for comparison between commits:
+ * <pre>
+ * mvn -Pbenchmark verify -Djmh.include=TicketServiceBenchmark -Djmh.args="-p rows=10000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TicketServiceBenchmark {
+
+    private static final int AGENTS = 100;
+
+    // Seeded and fresh tickets use ids far above what the pooled sequence hands out
+    private static final long SEEDED_IDS = 1_000_000_000L;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private FakeSmtpServer smtpServer;
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private TicketNumberGenerator ticketNumberGenerator;
+    private JdbcTemplate jdbcTemplate;
+    private final AtomicLong nextFreshId = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        smtpServer = new FakeSmtpServer(Duration.ZERO);
+        context = new SpringApplicationBuilder(SrvcTcktApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:ticket_service_benchmark",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        // application.properties logs every statement and its bindings
+                        "--logging.level.com.helpdesk.srvc_tckt=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--spring.mail.port=" + smtpServer.getPort(),
+                        "--app.archive.initial-delay=PT1H",
+                        "--app.email.outbox.poll-interval=PT1H",
+                        "--app.stats.reconcile-interval=PT1H");
+        ticketService = context.getBean(TicketService.class);
+        ticketNumberGenerator = context.getBean(TicketNumberGenerator.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("""
+                INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                     customer_name, customer_email, assigned_to_agent, handled_by_pod,
+                                     created_at, assigned_at, resolved_at, archived, version)
+                SELECT ? + X, 'TKT-SEED-' || X, 'Cannot log in after password reset #' || X,
+                       'The reset link in the email says it has expired although it arrived a minute ago.',
+                       CASE MOD(X, 4) WHEN 0 THEN 'URGENT' WHEN 1 THEN 'HIGH' WHEN 2 THEN 'MEDIUM' ELSE 'LOW' END,
+                       CASE MOD(X, 3) WHEN 0 THEN 'TECHNICAL' WHEN 1 THEN 'BILLING' ELSE 'ACCOUNT' END,
+                       CASE MOD(X, 10) WHEN 0 THEN 'NEW' WHEN 1 THEN 'ASSIGNED' WHEN 2 THEN 'IN_PROGRESS'
+                                       WHEN 3 THEN 'WAITING_CUSTOMER' WHEN 4 THEN 'RESOLVED' ELSE 'CLOSED' END,
+                       'Customer ' || X, 'customer' || X || '@example.com',
+                       CASEWHEN(MOD(X, 10) = 0, NULL, 'agent' || MOD(X, ?)),
+                       CASEWHEN(MOD(X, 10) = 0, NULL, 'srvc-tckt-0'),
+                       DATEADD('MINUTE', -X, CURRENT_TIMESTAMP),
+                       CASEWHEN(MOD(X, 10) = 0, NULL, DATEADD('MINUTE', 30 - X, CURRENT_TIMESTAMP)),
+                       CASEWHEN(MOD(X, 10) >= 4, DATEADD('MINUTE', 240 - X, CURRENT_TIMESTAMP), NULL),
+                       FALSE, 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, SEEDED_IDS, AGENTS, rows);
+        nextFreshId.set(SEEDED_IDS + rows);
+        context.getBean(TicketCounters.class).reconcile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        smtpServer.close();
+    }
+
+    // A NEW ticket inserted behind the service's back before each call that needs one
+    @State(Scope.Thread)
+    public static class FreshTicket {
+
+        private Long id;
+
+        @Setup(Level.Invocation)
+        public void insert(TicketServiceBenchmark benchmark) {
+            id = benchmark.nextFreshId.incrementAndGet();
+            benchmark.jdbcTemplate.update("""
+                    INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                         customer_name, customer_email, created_at, archived, version)
+                    VALUES (?, ?, 'Invoice shows the wrong VAT rate', 'Charged 25% instead of 19%.',
+                            'HIGH', 'BILLING', 'NEW', 'Customer', 'customer@example.com', CURRENT_TIMESTAMP, FALSE, 0)
+                    """, id, "TKT-FRESH-" + id);
+        }
+    }
+
+    @Benchmark
+    public Ticket createTicket() {
+        return ticketService.createTicket(TicketCreateRequest.builder()
+                .subject("Cannot log in after password reset")
+                .description("The reset link in the email says it has expired although it arrived a minute ago.")
+                .priority(Ticket.Priority.HIGH)
+                .category(Ticket.Category.ACCOUNT)
+                .customerName("Customer")
+                .customerEmail("customer@example.com")
+                .build());
+    }
+
+    @Benchmark
+    public Ticket assignToAgent(FreshTicket ticket) {
+        return ticketService.assignToAgent(ticket.id, "agent0");
+    }
+
+    // NEW -> ASSIGNED -> IN_PROGRESS -> RESOLVED -> CLOSED, one transaction per step
+    @Benchmark
+    public Ticket transitionChain(FreshTicket ticket) {
+        ticketService.assignToAgent(ticket.id, "agent0");
+        ticketService.startProgress(ticket.id);
+        ticketService.resolve(ticket.id);
+        return ticketService.close(ticket.id);
+    }
+
+    @Benchmark
+    public Map<String, Object> getStatistics() {
+        return ticketService.getStatistics();
+    }
+
+    @Benchmark
+    public Map<String, Object> getAgentStatistics() {
+        return ticketService.getAgentStatistics("agent1");
+    }
+
+    @Benchmark
+    public List<TicketQueueEntry> getUnassignedTickets() {
+        return ticketService.getUnassignedTickets();
+    }
+
+    @Benchmark
+    public String generateTicketNumber() {
+        return ticketNumberGenerator.next();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TicketServiceBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build()).run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.helpdesk.srvc_tckt.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Fills the {@code @Async} executor, one core thread growing to two with room for two queued
+ * tasks, with tasks that block until released: the fifth task is rejected under either policy,
+ * {@code drop} discards it and {@code caller-runs} runs it on the submitting thread, and the
+ * {@code app.async.*} meters report the pool as it is.
+ */
+class AsyncConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void dropPolicyDiscardsTheTaskAndCountsIt() {
+        executor = executor(AsyncConfig.RejectionPolicy.DROP);
+        fill();
+
+        AtomicReference<String> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread().getName()));
+
+        assertThat(meter("app.async.rejected")).isEqualTo(1.0);
+        assertThat(meter("app.async.active")).isEqualTo(2.0);
+        assertThat(meter("app.async.queued")).isEqualTo(2.0);
+        assertThat(meter("app.async.pool.size")).isEqualTo(2.0);
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> meter("app.async.active") == 0.0);
+        assertThat(meter("app.async.queued")).isZero();
+        assertThat(ranOn).hasNullValue();
+    }
+
+    @Test
+    void callerRunsPolicyRunsTheTaskOnTheSubmittingThread() {
+        executor = executor(AsyncConfig.RejectionPolicy.CALLER_RUNS);
+        fill();
+
+        AtomicReference<String> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread().getName()));
+
+        assertThat(ranOn).hasValue(Thread.currentThread().getName());
+        assertThat(meter("app.async.rejected")).isEqualTo(1.0);
+        assertThat(meter("app.async.queued")).isEqualTo(2.0);
+    }
+
+    @Test
+    void queueTakesTasksBeforeThePoolGrows() {
+        executor = executor(AsyncConfig.RejectionPolicy.DROP);
+
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        // Threads beyond the core size are only started once the queue is full
+        assertThat(meter("app.async.pool.size")).isEqualTo(1.0);
+        assertThat(meter("app.async.queued")).isEqualTo(2.0);
+        assertThat(meter("app.async.rejected")).isZero();
+    }
+
+    private ThreadPoolTaskExecutor executor(AsyncConfig.RejectionPolicy policy) {
+        AsyncConfig config = new AsyncConfig();
+        ReflectionTestUtils.setField(config, "coreSize", 1);
+        ReflectionTestUtils.setField(config, "maxSize", 2);
+        ReflectionTestUtils.setField(config, "queueCapacity", 2);
+        ReflectionTestUtils.setField(config, "keepAlive", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(config, "rejectionPolicy", policy);
+
+        ThreadPoolTaskExecutor asyncExecutor = config.asyncExecutor();
+        asyncExecutor.initialize();
+        config.asyncExecutorMetrics(asyncExecutor).bindTo(meterRegistry);
+        return asyncExecutor;
+    }
+
+    // Two running tasks and two queued ones, all waiting for release
+    private void fill() {
+        for (int i = 0; i < 4; i++) {
+            executor.execute(this::awaitRelease);
+        }
+        await().atMost(Duration.ofSeconds(5)).until(() -> meter("app.async.active") == 2.0);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double meter(String name) {
+        return meterRegistry.get(name).meter().measure().iterator().next().getValue();
+    }
+}
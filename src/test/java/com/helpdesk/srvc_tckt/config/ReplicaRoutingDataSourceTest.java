@@ -0,0 +1,182 @@
+package com.helpdesk.srvc_tckt.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routes connections through {@link ReplicaRoutingDataSource} over stubbed pools: read-only
+ * work goes round-robin to replicas within the allowed lag, lagging, unknown-lag and
+ * unreachable replicas are skipped, and the primary takes over when no replica is usable.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    private final StubPool primary = new StubPool("primary", 0.0);
+    private ReplicaRoutingDataSource routing;
+
+    @AfterEach
+    void close() {
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    @Test
+    void readOnlyWorkIsSpreadOverTheReplicasAndWritesGoToThePrimary() throws SQLException {
+        StubPool first = new StubPool("replica-0", 0.0);
+        StubPool second = new StubPool("replica-1", 1.5);
+        routing = routing(first, second);
+
+        routing.checkLag();
+
+        assertThat(List.of(route(true), route(true), route(true)))
+                .containsExactly(first.connection, second.connection, first.connection);
+        assertThat(route(false)).isSameAs(primary.connection);
+        assertThat(routing.getReplicas()).extracting(ReplicaRoutingDataSource.Replica::getLagSeconds)
+                .containsExactly(0.0, 1.5);
+    }
+
+    @Test
+    void replicaBeyondTheAllowedLagIsSkipped() throws SQLException {
+        StubPool lagging = new StubPool("replica-0", 30.0);
+        StubPool current = new StubPool("replica-1", 0.0);
+        routing = routing(lagging, current);
+
+        routing.checkLag();
+
+        assertThat(List.of(route(true), route(true))).containsOnly(current.connection);
+        ReplicaRoutingDataSource.Replica replica = routing.getReplicas().getFirst();
+        assertThat(replica.isUsable()).isFalse();
+        assertThat(replica.getLagSeconds()).isEqualTo(30.0);
+    }
+
+    @Test
+    void replicaWithUnknownLagIsSkipped() throws SQLException {
+        StubPool notStreaming = new StubPool("replica-0", null);
+        StubPool current = new StubPool("replica-1", 0.0);
+        routing = routing(notStreaming, current);
+
+        routing.checkLag();
+
+        assertThat(List.of(route(true), route(true))).containsOnly(current.connection);
+        assertThat(routing.getReplicas().getFirst().isUsable()).isFalse();
+        assertThat(routing.getReplicas().getFirst().getLagSeconds()).isNaN();
+    }
+
+    @Test
+    void unreachableReplicaIsSkipped() throws SQLException {
+        StubPool unreachable = new StubPool("replica-0", 0.0);
+        unreachable.down = true;
+        StubPool current = new StubPool("replica-1", 0.0);
+        routing = routing(unreachable, current);
+
+        routing.checkLag();
+
+        assertThat(List.of(route(true), route(true))).containsOnly(current.connection);
+        assertThat(routing.getReplicas().getFirst().getLagSeconds()).isNaN();
+    }
+
+    @Test
+    void primaryServesReadsWhenNoReplicaIsUsable() throws SQLException {
+        StubPool lagging = new StubPool("replica-0", 30.0);
+        StubPool unreachable = new StubPool("replica-1", 0.0);
+        unreachable.down = true;
+        routing = routing(lagging, unreachable);
+
+        routing.checkLag();
+
+        assertThat(route(true)).isSameAs(primary.connection);
+    }
+
+    @Test
+    void replicaFailingToConnectIsSkippedRightAway() throws SQLException {
+        StubPool failing = new StubPool("replica-0", 0.0);
+        routing = routing(failing);
+        routing.checkLag();
+
+        // Down between two lag checks
+        failing.down = true;
+
+        assertThat(route(true)).isSameAs(primary.connection);
+        assertThat(routing.getReplicas().getFirst().isUsable()).isFalse();
+    }
+
+    @Test
+    void replicaIsUsedAgainOnceItCatchesUp() throws SQLException {
+        StubPool replica = new StubPool("replica-0", 30.0);
+        routing = routing(replica);
+        routing.checkLag();
+        // The check started by the constructor has finished too, so it cannot undo the next one
+        verify(replica.connection, timeout(5000).times(2)).close();
+        assertThat(route(true)).isSameAs(primary.connection);
+
+        replica.lag = 0.5;
+        routing.checkLag();
+
+        assertThat(route(true)).isSameAs(replica.connection);
+        assertThat(routing.getReplicas().getFirst().getLagSeconds()).isEqualTo(0.5);
+    }
+
+    private ReplicaRoutingDataSource routing(StubPool... replicas) {
+        return new ReplicaRoutingDataSource(primary.pool,
+                Arrays.stream(replicas).map(replica -> replica.pool).toList(),
+                MAX_LAG, "SELECT lag", Duration.ofHours(1));
+    }
+
+    // The physical connection behind a lazily fetched one
+    private Connection route(boolean readOnly) throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            connection.setReadOnly(readOnly);
+            return ((ConnectionProxy) connection).getTargetConnection();
+        }
+    }
+
+    // A pool whose one connection answers the lag query with lag, NULL when lag is null
+    private static final class StubPool {
+
+        final HikariDataSource pool = mock(HikariDataSource.class);
+        final Connection connection = mock(Connection.class);
+        volatile Double lag;
+        volatile boolean down;
+
+        StubPool(String name, Double lag) {
+            this.lag = lag;
+            try {
+                Statement statement = mock(Statement.class);
+                ResultSet resultSet = mock(ResultSet.class);
+                when(pool.getPoolName()).thenReturn(name);
+                when(pool.getConnection()).thenAnswer(invocation -> {
+                    if (down) {
+                        throw new SQLException("Connection refused");
+                    }
+                    return connection;
+                });
+                when(connection.createStatement()).thenReturn(statement);
+                when(statement.executeQuery(anyString())).thenReturn(resultSet);
+                when(resultSet.next()).thenReturn(true);
+                when(resultSet.getDouble(1)).thenAnswer(invocation -> this.lag == null ? 0.0 : this.lag);
+                when(resultSet.wasNull()).thenAnswer(invocation -> this.lag == null);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.helpdesk.srvc_tckt.load;
+
+import com.helpdesk.srvc_tckt.SrvcTcktApplication;
+import com.helpdesk.srvc_tckt.dto.TicketCreateRequest;
+import com.helpdesk.srvc_tckt.dto.TicketQueueEntry;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.service.TicketConflictException;
+import com.helpdesk.srvc_tckt.service.TicketService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several application instances, each with its own pool, caches and pod name, share one H2
+ * database the way the replicas of the deployment share PostgreSQL. Simulated agents on every
+ * instance claim tickets from the queue at a fixed rate until it is empty, and the harness
+ * reports claim throughput, conflict rate and claim latency, then checks that no ticket was
+ * given to two agents.
+ * <p>
+ * Settings are system properties, passed on the Maven command line:
+ * <ul>
+ *   <li>{@code load.instances} - application contexts, default 3 like {@code replicas: 3}</li>
+ *   <li>{@code load.agents} - agents per instance, default 4</li>
+ *   <li>{@code load.tickets} - unassigned tickets to drain, default 2000</li>
+ *   <li>{@code load.rate} - claim attempts per second per agent, 0 for as fast as possible;
+ *       default 20</li>
+ *   <li>{@code load.pick-from} - how far down the queue agents pick, default 5. Agents reading
+ *       the same queue and taking its top entries is what makes claims collide.</li>
+ *   <li>{@code load.strategy} - {@code assign} (read the queue, then {@code assignToAgent}) or
+ *       {@code claim-next} ({@code claimNextTicket}); default {@code assign}. A claim-next that
+ *       finds nothing while tickets remain is reported as an empty claim.</li>
+ *   <li>{@code load.timeout} - give up after this long, default PT5M</li>
+ * </ul>
+ * <pre>
+ * mvn -Pload test -Dload.instances=3 -Dload.agents=8 -Dload.rate=0
+ * </pre>
+ */
+@Tag("load")
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketClaimLoadTest {
+
+    private static final String DATABASE_URL = "jdbc:h2:mem:ticket_claim_load;DB_CLOSE_DELAY=-1";
+
+    private final int instances = Integer.getInteger("load.instances", 3);
+    private final int agentsPerInstance = Integer.getInteger("load.agents", 4);
+    private final int tickets = Integer.getInteger("load.tickets", 2000);
+    private final int rate = Integer.getInteger("load.rate", 20);
+    private final int pickFrom = Integer.getInteger("load.pick-from", 5);
+    private final String strategy = System.getProperty("load.strategy", "assign");
+    private final Duration timeout = Duration.parse(System.getProperty("load.timeout", "PT5M"));
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    // Ticket id -> the agent that was told it won the ticket
+    private final Map<Long, String> winners = new ConcurrentHashMap<>();
+    private final Queue<String> doubleClaims = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> claimLatencies = new ConcurrentLinkedQueue<>();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @BeforeAll
+    void startInstances() {
+        // Started one after another, so only the first one runs the migrations
+        for (int i = 0; i < instances; i++) {
+            contexts.add(new SpringApplicationBuilder(SrvcTcktApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=" + DATABASE_URL,
+                            "--pod.name=load-pod-" + i,
+                            "--node.name=load-node",
+                            "--app.ticket-number.node-id=" + i,
+                            "--app.email.enabled=false",
+                            "--spring.jpa.show-sql=false",
+                            "--logging.level.root=WARN",
+                            "--logging.level.com.helpdesk.srvc_tckt=WARN",
+                            "--logging.level.com.helpdesk.srvc_tckt.load=INFO",
+                            "--logging.level.org.hibernate.SQL=WARN",
+                            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                            "--app.archive.initial-delay=PT1H",
+                            "--app.email.outbox.poll-interval=PT1H",
+                            "--app.stats.reconcile-interval=PT1H"));
+        }
+    }
+
+    @AfterAll
+    void stopInstances() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void agentsOnEveryInstanceDrainTheQueueWithoutDoubleAssignment() throws Exception {
+        seedQueue();
+
+        int agents = instances * agentsPerInstance;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        long began;
+        try (ExecutorService executor = Executors.newFixedThreadPool(agents)) {
+            for (int i = 0; i < instances; i++) {
+                TicketService ticketService = contexts.get(i).getBean(TicketService.class);
+                for (int a = 0; a < agentsPerInstance; a++) {
+                    String agent = "agent-" + i + "-" + a;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        runAgent(ticketService, agent);
+                        return null;
+                    }));
+                }
+            }
+            began = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - began);
+
+        report(elapsed);
+
+        assertThat(doubleClaims).as("tickets given to more than one agent").isEmpty();
+        assertThat(winners).hasSize(tickets);
+
+        // What the database ended up with must match what the agents were told
+        JdbcTemplate jdbcTemplate = contexts.getFirst().getBean(JdbcTemplate.class);
+        Map<Long, String> assigned = new HashMap<>();
+        jdbcTemplate.query("SELECT id, assigned_to_agent FROM tickets WHERE status = 'ASSIGNED'",
+                (RowCallbackHandler) rs -> assigned.put(rs.getLong("id"), rs.getString("assigned_to_agent")));
+        assertThat(assigned).isEqualTo(winners);
+    }
+
+    private void seedQueue() {
+        TicketService ticketService = contexts.getFirst().getBean(TicketService.class);
+        Ticket.Priority[] priorities = Ticket.Priority.values();
+        for (int from = 0; from < tickets; from += 500) {
+            List<TicketCreateRequest> batch = IntStream.range(from, Math.min(tickets, from + 500))
+                    .mapToObj(i -> TicketCreateRequest.builder()
+                            .subject("Load test ticket " + i)
+                            .description("Created by TicketClaimLoadTest")
+                            .priority(priorities[i % priorities.length])
+                            .category(Ticket.Category.TECHNICAL)
+                            .customerName("Customer " + i)
+                            .customerEmail("customer" + i + "@example.com")
+                            .build())
+                    .toList();
+            ticketService.createTickets(batch, false);
+        }
+    }
+
+    private void runAgent(TicketService ticketService, String agent) throws InterruptedException {
+        long interval = rate > 0 ? 1_000_000_000L / rate : 0;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long next = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            if (interval > 0) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(Duration.ofNanos(wait));
+                }
+                next += interval;
+            }
+
+            long claimStart = System.nanoTime();
+            Optional<Long> claimed;
+            try {
+                claimed = claim(ticketService, agent);
+            } catch (TicketConflictException e) {
+                // Someone else got there between our queue read and our update
+                attempts.increment();
+                conflicts.increment();
+                claimLatencies.add(System.nanoTime() - claimStart);
+                continue;
+            }
+            attempts.increment();
+            claimLatencies.add(System.nanoTime() - claimStart);
+            if (claimed.isEmpty()) {
+                // claimNextTicket also comes back empty when every row it looked at was locked
+                // by another claimer, which is not the same as a drained queue
+                if (ticketService.getUnassignedTickets().isEmpty()) {
+                    return;
+                }
+                misses.increment();
+                continue;
+            }
+            String previous = winners.putIfAbsent(claimed.get(), agent);
+            if (previous != null) {
+                doubleClaims.add("ticket " + claimed.get() + ": " + previous + " and " + agent);
+            }
+        }
+    }
+
+    // The claimed ticket's id, or empty if there was nothing to claim
+    private Optional<Long> claim(TicketService ticketService, String agent) {
+        if ("claim-next".equals(strategy)) {
+            return ticketService.claimNextTicket(agent).map(Ticket::getId);
+        }
+        List<TicketQueueEntry> queue = ticketService.getUnassignedTickets();
+        if (queue.isEmpty()) {
+            return Optional.empty();
+        }
+        TicketQueueEntry pick = queue.get(ThreadLocalRandom.current().nextInt(Math.min(pickFrom, queue.size())));
+        return Optional.of(ticketService.assignToAgent(pick.id(), agent).getId());
+    }
+
+    private void report(Duration elapsed) {
+        long[] latencies = claimLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        long total = attempts.sum();
+        log.info("""
+                        Claim load: %d instances x %d agents, %d tickets, strategy %s, rate %s
+                          elapsed      %d ms
+                          claimed      %d (%.1f/s)
+                          attempts     %d, conflicts %d (%.1f%%), empty claims %d
+                          latency      p50 %.2f ms, p99 %.2f ms, max %.2f ms""".formatted(
+                instances, agentsPerInstance, tickets, strategy, rate > 0 ? rate + "/s per agent" : "unthrottled",
+                elapsed.toMillis(),
+                winners.size(), winners.size() * 1000.0 / Math.max(1, elapsed.toMillis()),
+                total, conflicts.sum(), total > 0 ? conflicts.sum() * 100.0 / total : 0.0, misses.sum(),
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                millis(latencies.length > 0 ? latencies[latencies.length - 1] : 0)));
+        if (!doubleClaims.isEmpty()) {
+            log.warn("Double claims: {}", doubleClaims);
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,140 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import com.helpdesk.srvc_tckt.dto.TicketBulkFilter;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.entity.TicketTransition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Moves tickets from {@code tickets} to {@code tickets_archive} with the vendor SQL the
+ * repository runs on H2, and checks which rows move and that they arrive with the same id and
+ * column values.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "app.archive.initial-delay=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:ticket_archive_test"
+})
+class TicketArchiveRepositoryTest {
+
+    private static final String COLUMNS = """
+            id, ticket_number, subject, description, priority, category, status, customer_name,
+            customer_email, assigned_to_agent, handled_by_pod, handled_by_node, created_at,
+            assigned_at, resolved_at, archived, version""";
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clearTickets() {
+        jdbcTemplate.update("DELETE FROM tickets");
+        jdbcTemplate.update("DELETE FROM tickets_archive");
+    }
+
+    @Test
+    void archivingMovesOnlyClosedTicketsPastTheCutoff() {
+        ZonedDateTime now = ZonedDateTime.now();
+        insert(1, "CLOSED", now.minusDays(120), false);
+        insert(2, "CLOSED", now.minusDays(100), false);
+        insert(3, "CLOSED", now.minusDays(10), false);
+        insert(4, "RESOLVED", now.minusDays(120), false);
+        Map<Long, Map<String, Object>> before = rows("tickets");
+
+        List<Ticket> archived = transactionTemplate.execute(status -> {
+            List<Ticket> tickets = ticketRepository.transitionMatching(TicketTransition.ARCHIVE,
+                    TicketBulkFilter.builder().resolvedBefore(now.minusDays(90)).build(), now, 100);
+            ticketRepository.moveToArchive(tickets.stream().map(Ticket::getId).toList());
+            return tickets;
+        });
+
+        assertThat(archived).extracting(Ticket::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(rows("tickets")).containsOnlyKeys(3L, 4L);
+        Map<Long, Map<String, Object>> moved = rows("tickets_archive");
+        assertThat(moved).containsOnlyKeys(1L, 2L);
+        for (long id : List.of(1L, 2L)) {
+            // Only what the transition itself changes differs
+            Map<String, Object> expected = new HashMap<>(before.get(id));
+            expected.put("STATUS", "ARCHIVED");
+            expected.put("ARCHIVED", true);
+            expected.put("VERSION", (Long) expected.get("VERSION") + 1);
+            assertThat(moved.get(id)).as("ticket %d", id).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void sweepMovesArchivedRowsInChunksUnchanged() {
+        ZonedDateTime now = ZonedDateTime.now();
+        for (int id = 1; id <= 5; id++) {
+            insert(id, "ARCHIVED", now.minusDays(200 + id), true);
+        }
+        insert(6, "CLOSED", now.minusDays(300), false);
+        Map<Long, Map<String, Object>> before = rows("tickets");
+
+        Integer first = transactionTemplate.execute(status -> ticketRepository.moveArchivedChunk(3));
+        Integer second = transactionTemplate.execute(status -> ticketRepository.moveArchivedChunk(3));
+        Integer third = transactionTemplate.execute(status -> ticketRepository.moveArchivedChunk(3));
+
+        assertThat(List.of(first, second, third)).containsExactly(3, 2, 0);
+        assertThat(rows("tickets")).containsOnlyKeys(6L);
+        Map<Long, Map<String, Object>> moved = rows("tickets_archive");
+        assertThat(moved).containsOnlyKeys(1L, 2L, 3L, 4L, 5L);
+        moved.forEach((id, row) -> assertThat(row).as("ticket %d", id).isEqualTo(before.get(id)));
+    }
+
+    @Test
+    void singleMoveOnlyTakesAnArchivedTicket() {
+        ZonedDateTime now = ZonedDateTime.now();
+        insert(7, "ARCHIVED", now.minusDays(5), true);
+        insert(8, "CLOSED", now.minusDays(5), false);
+        Map<Long, Map<String, Object>> before = rows("tickets");
+
+        assertThat(ticketRepository.moveToArchive(7L)).isEqualTo(1);
+        assertThat(ticketRepository.moveToArchive(8L)).isZero();
+
+        assertThat(rows("tickets")).containsOnlyKeys(8L);
+        assertThat(rows("tickets_archive")).containsExactly(Map.entry(7L, before.get(7L)));
+        assertThat(jdbcTemplate.queryForObject("SELECT archived_at FROM tickets_archive WHERE id = 7",
+                OffsetDateTime.class)).isNotNull();
+    }
+
+    private void insert(long id, String status, ZonedDateTime resolvedAt, boolean archived) {
+        jdbcTemplate.update("""
+                        INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                             customer_name, customer_email, assigned_to_agent, handled_by_pod,
+                                             handled_by_node, created_at, assigned_at, resolved_at, archived, version)
+                        VALUES (?, ?, ?, 'Printer on fire', 'HIGH', 'TECHNICAL', ?, 'Ada', 'ada@example.com',
+                                'agent1', 'pod-a', 'node-a', ?, ?, ?, ?, 3)
+                        """,
+                id, "TKT-ARCH-" + id, "Ticket " + id, status,
+                resolvedAt.minusDays(2).toOffsetDateTime(), resolvedAt.minusDays(1).toOffsetDateTime(),
+                resolvedAt.toOffsetDateTime(), archived);
+    }
+
+    // Archive columns by id
+    private Map<Long, Map<String, Object>> rows(String table) {
+        Map<Long, Map<String, Object>> rows = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT " + COLUMNS + " FROM " + table)) {
+            rows.put((Long) row.get("ID"), row);
+        }
+        return rows;
+    }
+}
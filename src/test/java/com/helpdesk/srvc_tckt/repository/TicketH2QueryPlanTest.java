@@ -0,0 +1,411 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import com.helpdesk.srvc_tckt.dto.TicketBulkFilter;
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.entity.TicketTransition;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the ticket queries against a seeded H2 database and checks the EXPLAIN plan of every
+ * statement they send: none may scan a table, and an ORDER BY must either be reported by H2 as
+ * "index sorted" or be in the order of an index on the table after the equality columns of the
+ * index H2 chose. H2 only reports "index sorted" when the ORDER BY starts with the index columns,
+ * so the second case is a check of index shape, not of a plan without a sort.
+ * <p>
+ * Plans are not checked on PostgreSQL. What is checked is that every index of the PostgreSQL
+ * migration has the columns of its H2 twin once the columns fixed by its partial-index predicate
+ * are left out, so the shapes tested here are the ones PostgreSQL gets.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "app.archive.initial-delay=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:query_plan_test"
+})
+@Import(TicketH2QueryPlanTest.RecordingDataSourceConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketH2QueryPlanTest {
+
+    private static final int TICKETS = 20_000;
+
+    private static final Pattern INDEX_USED = Pattern.compile("/\\* PUBLIC\\.(\\w+)(?:: (.*?))? \\*/", Pattern.DOTALL);
+    private static final Pattern EQUALITY = Pattern.compile("^\"?(\\w+)\"? = ");
+    private static final Pattern INDEX_DEFINITION = Pattern.compile(
+            "CREATE INDEX (?:CONCURRENTLY )?\\w+ ON (\\w+) \\((.+?)\\)(?: WHERE (.+))?");
+    private static final Pattern ORDER_BY = Pattern.compile(
+            "\\border by (.+?)(?:\\boffset\\b|\\bfetch\\b|\\blimit\\b|\\bfor update\\b|\\)|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketEventRepository ticketEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                     customer_name, customer_email, assigned_to_agent, created_at, resolved_at,
+                                     archived, version)
+                SELECT X, 'TKT-PLAN-' || X, 'Subject', 'Description',
+                       CASE MOD(X, 4) WHEN 0 THEN 'URGENT' WHEN 1 THEN 'HIGH' WHEN 2 THEN 'MEDIUM' ELSE 'LOW' END,
+                       CASE MOD(X, 5) WHEN 0 THEN 'TECHNICAL' WHEN 1 THEN 'BILLING' WHEN 2 THEN 'ACCOUNT'
+                                      ELSE 'GENERAL' END,
+                       CASE MOD(X, 7) WHEN 0 THEN 'NEW' WHEN 1 THEN 'ASSIGNED' WHEN 2 THEN 'IN_PROGRESS'
+                                      WHEN 3 THEN 'WAITING_CUSTOMER' WHEN 4 THEN 'RESOLVED' ELSE 'CLOSED' END,
+                       'Customer', 'customer' || MOD(X, 2000) || '@example.com',
+                       CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE 'agent' || MOD(X, 25) END,
+                       DATEADD('MINUTE', -X, CURRENT_TIMESTAMP),
+                       CASE WHEN MOD(X, 7) >= 4 THEN DATEADD('MINUTE', -X / 2, CURRENT_TIMESTAMP) END,
+                       MOD(X, 100) = 0, 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, TICKETS);
+        jdbcTemplate.update("""
+                INSERT INTO tickets_archive (id, ticket_number, subject, description, priority, category, status,
+                                             customer_name, customer_email, created_at, archived, version, archived_at)
+                SELECT X, 'TKT-OLD-' || X, 'Subject', 'Description', 'LOW', 'GENERAL', 'ARCHIVED',
+                       'Customer', 'old@example.com', DATEADD('DAY', -X, CURRENT_TIMESTAMP), TRUE, 1, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(?, ?)
+                """, TICKETS + 1, TICKETS + 5_000);
+        jdbcTemplate.update("""
+                INSERT INTO ticket_events (ticket_id, event_type, from_status, to_status, agent, occurred_at)
+                SELECT MOD(X, ?) + 1, 'UPDATED', 'NEW', 'NEW', 'agent' || MOD(X, 25),
+                       DATEADD('MINUTE', -X, CURRENT_TIMESTAMP)
+                FROM SYSTEM_RANGE(1, ?)
+                """, TICKETS, 3 * TICKETS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void activeTicketPages() {
+        assertIndexed(() -> ticketRepository.findByArchivedFalseOrderByCreatedAtDescIdDesc(
+                ScrollPosition.keyset(), Limit.of(25)));
+        assertIndexed(() -> ticketRepository.findByArchivedFalseOrderByCreatedAtDescIdDesc(
+                nextPage(), Limit.of(25)));
+    }
+
+    @Test
+    void filteredTicketPages() {
+        assertIndexed(() -> ticketRepository.findByStatusAndArchivedFalseOrderByCreatedAtDescIdDesc(
+                Ticket.Status.IN_PROGRESS, nextPage(), Limit.of(25)));
+        assertIndexed(() -> ticketRepository.findByPriorityAndArchivedFalseOrderByCreatedAtDescIdDesc(
+                Ticket.Priority.HIGH, nextPage(), Limit.of(25)));
+        assertIndexed(() -> ticketRepository.findByCategoryAndArchivedFalseOrderByCreatedAtDescIdDesc(
+                Ticket.Category.BILLING, nextPage(), Limit.of(25)));
+        assertIndexed(() -> ticketRepository.findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDescIdDesc(
+                "agent3", nextPage(), Limit.of(25)));
+    }
+
+    @Test
+    void agentTickets() {
+        assertIndexed(() -> ticketRepository.findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDesc(
+                "agent3", TicketSummary.class));
+        assertIndexed(() -> ticketRepository.findByAssignedToAgentAndArchivedFalseOrderByCreatedAtDesc(
+                "agent3", TicketRepository.ResolutionTimes.class));
+    }
+
+    @Test
+    void customerTickets() {
+        assertIndexed(() -> ticketRepository.findByCustomerEmailOrderByCreatedAtDesc("customer7@example.com"));
+    }
+
+    @Test
+    void unassignedQueue() {
+        assertIndexed(() -> ticketRepository.findQueue());
+        assertIndexed(() -> ticketRepository.findQueueDepth());
+        assertIndexed(() -> transactionTemplate.execute(status -> ticketRepository.lockNextUnassignedId()));
+    }
+
+    @Test
+    void singleTicketLookups() {
+        assertIndexed(() -> ticketRepository.findById(42L));
+        assertIndexed(() -> ticketRepository.findStatusById(42L));
+        assertIndexed(() -> ticketRepository.findArchivedById(TICKETS + 42L));
+    }
+
+    @Test
+    void ticketEvents() {
+        assertIndexed(() -> ticketEventRepository.findByTicketId(42L));
+    }
+
+    @Test
+    void transitions() {
+        // Rolled back, so the seeded data stays as it is for the other tests
+        assertIndexed(() -> transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            ticketRepository.transition(43L, TicketTransition.START_PROGRESS, ZonedDateTime.now(), null);
+            ticketRepository.transitionMatching(TicketTransition.CLOSE, TicketBulkFilter.builder()
+                    .resolvedBefore(ZonedDateTime.now().minusDays(1))
+                    .build(), ZonedDateTime.now(), 100);
+            ticketRepository.moveToArchive(100L);
+            ticketRepository.moveToArchive(List.of(200L, 300L));
+            return ticketRepository.moveArchivedChunk(100);
+        }));
+    }
+
+    @Test
+    void exportsAndArchive() {
+        assertIndexed(() -> transactionTemplate.execute(status -> {
+            try (Stream<Ticket> active = ticketRepository.streamByArchived(false);
+                 Stream<Ticket> archived = ticketRepository.streamArchived()) {
+                return active.limit(10).count() + archived.limit(10).count();
+            }
+        }));
+    }
+
+    @Test
+    void postgresqlIndexesMatchTheTestedShapes() throws IOException {
+        Map<String, String> h2 = indexes("db/vendor/h2/V7__Index_ticket_access_paths.sql");
+        Map<String, String> postgresql = indexes("db/vendor/postgresql/V7_1__Build_ticket_access_path_indexes.sql");
+
+        assertThat(postgresql.keySet()).isEqualTo(h2.keySet());
+        for (Map.Entry<String, String> index : postgresql.entrySet()) {
+            Matcher definition = INDEX_DEFINITION.matcher(index.getValue());
+            assertThat(definition.matches()).as(index.getValue()).isTrue();
+            Set<String> predicate = equalityColumns(definition.group(3));
+            Matcher twin = INDEX_DEFINITION.matcher(h2.get(index.getKey()));
+            assertThat(twin.matches()).as(h2.get(index.getKey())).isTrue();
+            List<String> expected = columnList(twin.group(2)).stream()
+                    .filter(column -> !predicate.contains(column.split(" ")[0]))
+                    .toList();
+
+            assertThat(twin.group(1)).as("table of %s", index.getKey()).isEqualTo(definition.group(1));
+            assertThat(columnList(definition.group(2))).as("columns of %s", index.getKey()).isEqualTo(expected);
+        }
+    }
+
+    private static ScrollPosition nextPage() {
+        return ScrollPosition.forward(Map.of("createdAt", ZonedDateTime.now().minusDays(3), "id", 5_000L));
+    }
+
+    // Runs the call and checks the plan of every statement it sent that touches a ticket table
+    // or the event log
+    private void assertIndexed(Runnable call) {
+        statements.clear();
+        call.run();
+        List<String> sent = statements.stream()
+                .filter(sql -> {
+                    String lower = sql.toLowerCase(Locale.ROOT);
+                    return lower.contains("tickets") || lower.contains("ticket_events");
+                })
+                .toList();
+        assertThat(sent).as("statements sent").isNotEmpty();
+        for (String sql : sent) {
+            assertPlan(sql);
+        }
+    }
+
+    private void assertPlan(String sql) {
+        // EXPLAIN of an OLD TABLE (...) wrapper only describes the delta table, not the DML inside
+        String explained = sql;
+        int delta = sql.indexOf("OLD TABLE (");
+        if (delta >= 0) {
+            explained = sql.substring(delta + "OLD TABLE (".length(), sql.lastIndexOf(')'));
+        }
+        String plan = explain(explained);
+
+        assertThat(plan).as("plan of %s", sql)
+                .doesNotContainIgnoringCase("tableScan")
+                .doesNotContainIgnoringCase("table scan");
+
+        List<String> orderBy = orderColumns(explained);
+        if (orderBy.isEmpty() || plan.contains("/* index sorted */")) {
+            return;
+        }
+        Matcher index = INDEX_USED.matcher(plan);
+        assertThat(index.find()).as("index in plan %s", plan).isTrue();
+        Set<String> fixed = equalityColumns(index.group(2));
+        Map<String, List<String>> candidates = tableIndexColumns(index.group(1));
+
+        assertThat(candidates).as("index ordering %s after %s (plan %s)", orderBy, fixed, plan)
+                .values()
+                .anySatisfy(columns -> assertThat(deliversOrder(columns, fixed, orderBy)).isTrue());
+    }
+
+    // Skipping the leading columns fixed by equality, the index continues with the ORDER BY
+    // columns, all in the same or all in the opposite direction
+    private static boolean deliversOrder(List<String> indexColumns, Set<String> fixed, List<String> orderBy) {
+        int first = 0;
+        while (first < indexColumns.size() && fixed.contains(columnName(indexColumns.get(first)))) {
+            first++;
+        }
+        if (indexColumns.size() - first < orderBy.size()) {
+            return false;
+        }
+        List<String> next = indexColumns.subList(first, first + orderBy.size());
+        return next.equals(orderBy) || next.equals(reversed(orderBy));
+    }
+
+    private String explain(String sql) {
+        // Parameters stay unbound; H2 plans a statement before it sees their values
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : null);
+    }
+
+    // "COLUMN ASC|DESC" in index order, for every index on the table the given index belongs to
+    private Map<String, List<String>> tableIndexColumns(String indexName) {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                        SELECT INDEX_NAME, COLUMN_NAME, ORDERING_SPECIFICATION FROM INFORMATION_SCHEMA.INDEX_COLUMNS
+                        WHERE TABLE_NAME = (SELECT TABLE_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = ?)
+                        ORDER BY INDEX_NAME, ORDINAL_POSITION
+                        """,
+                rs -> {
+                    indexes.computeIfAbsent(rs.getString(1), name -> new ArrayList<>())
+                            .add(rs.getString(2) + " " + rs.getString(3));
+                }, indexName);
+        return indexes;
+    }
+
+    // Columns an index condition pins to a single value, e.g. "STATUS = ?1 AND ARCHIVED = FALSE"
+    private static Set<String> equalityColumns(String condition) {
+        Set<String> columns = new HashSet<>();
+        if (condition == null) {
+            return columns;
+        }
+        for (String part : condition.split("\\s+AND\\s+")) {
+            Matcher equality = EQUALITY.matcher(part.trim());
+            if (equality.find()) {
+                columns.add(equality.group(1).toUpperCase(Locale.ROOT));
+            }
+        }
+        return columns;
+    }
+
+    // "COLUMN ASC|DESC" per ORDER BY item, without table aliases
+    private static List<String> orderColumns(String sql) {
+        List<String> columns = new ArrayList<>();
+        Matcher orderBy = ORDER_BY.matcher(sql);
+        if (!orderBy.find()) {
+            return columns;
+        }
+        for (String item : orderBy.group(1).trim().split("\\s*,\\s*")) {
+            String[] words = item.trim().split("\\s+");
+            String column = words[0].substring(words[0].lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);
+            boolean descending = words.length > 1 && words[1].equalsIgnoreCase("desc");
+            columns.add(column + (descending ? " DESC" : " ASC"));
+        }
+        return columns;
+    }
+
+    // Index name to "CREATE INDEX [CONCURRENTLY] ..." statement, one per line of the migration
+    private static Map<String, String> indexes(String migration) throws IOException {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        try (InputStream in = new ClassPathResource(migration).getInputStream()) {
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\\R")) {
+                if (line.startsWith("CREATE INDEX ")) {
+                    indexes.put(line.replace("CONCURRENTLY ", "").split("\\s+")[2], line.replaceAll(";\\s*$", ""));
+                }
+            }
+        }
+        return indexes;
+    }
+
+    // "COLUMN" or "COLUMN DESC" per index column
+    private static List<String> columnList(String columns) {
+        return Stream.of(columns.split("\\s*,\\s*"))
+                .map(column -> column.trim().toUpperCase(Locale.ROOT).replaceAll(" ASC$", ""))
+                .toList();
+    }
+
+    private static String columnName(String indexColumn) {
+        return indexColumn.substring(0, indexColumn.indexOf(' '));
+    }
+
+    private static List<String> reversed(List<String> columns) {
+        return columns.stream()
+                .map(column -> column.endsWith(" DESC")
+                        ? columnName(column) + " ASC"
+                        : columnName(column) + " DESC")
+                .toList();
+    }
+
+    // Records the SQL of every statement prepared or executed through the application's DataSource
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return recording(Connection.class, super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T recording(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (args != null && args.length > 0 && args[0] instanceof String sql
+                        && (method.getName().startsWith("prepare") || method.getName().startsWith("execute"))) {
+                    statements.add(sql);
+                }
+                try {
+                    Object result = method.invoke(target, args);
+                    if (method.getName().equals("createStatement")) {
+                        return recording(Statement.class, (Statement) result);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
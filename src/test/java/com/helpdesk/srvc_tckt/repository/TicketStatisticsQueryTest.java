@@ -0,0 +1,114 @@
+package com.helpdesk.srvc_tckt.repository;
+
+import com.helpdesk.srvc_tckt.dto.TicketStatistics;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the single statistics query on H2 against one count per bucket, the way the dashboard
+ * used to count: status, priority, category and pod breakdowns cover active tickets only, and
+ * archived tickets are counted whether or not they have been moved to {@code tickets_archive}.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "app.archive.initial-delay=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:ticket_statistics_test"
+})
+class TicketStatisticsQueryTest {
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedTickets() {
+        jdbcTemplate.update("DELETE FROM tickets");
+        jdbcTemplate.update("DELETE FROM tickets_archive");
+        // Every mix of status, priority and category, one ticket in nine archived but not yet
+        // moved, and NEW tickets with no pod
+        jdbcTemplate.update("""
+                INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                     customer_name, customer_email, handled_by_pod, created_at, archived, version)
+                SELECT X, 'TKT-STATS-' || X, 'Subject', 'Description',
+                       CASE MOD(X, 4) WHEN 0 THEN 'URGENT' WHEN 1 THEN 'HIGH' WHEN 2 THEN 'MEDIUM' ELSE 'LOW' END,
+                       CASE MOD(X, 5) WHEN 0 THEN 'TECHNICAL' WHEN 1 THEN 'BILLING' WHEN 2 THEN 'ACCOUNT'
+                                      ELSE 'GENERAL' END,
+                       CASE MOD(X, 7) WHEN 0 THEN 'NEW' WHEN 1 THEN 'ASSIGNED' WHEN 2 THEN 'IN_PROGRESS'
+                                      WHEN 3 THEN 'WAITING_CUSTOMER' WHEN 4 THEN 'RESOLVED' ELSE 'CLOSED' END,
+                       'Customer', 'customer@example.com',
+                       CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE 'pod-' || MOD(X, 3) END,
+                       DATEADD('MINUTE', -X, CURRENT_TIMESTAMP), MOD(X, 9) = 0, 0
+                FROM SYSTEM_RANGE(1, 997)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO tickets_archive (id, ticket_number, subject, description, priority, category, status,
+                                             customer_name, customer_email, created_at, archived, version, archived_at)
+                SELECT X, 'TKT-STATS-OLD-' || X, 'Subject', 'Description', 'LOW', 'GENERAL', 'CLOSED',
+                       'Customer', 'old@example.com', DATEADD('DAY', -X, CURRENT_TIMESTAMP), TRUE, 1, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1001, 1040)
+                """);
+    }
+
+    @Test
+    void aggregateMatchesACountPerBucket() {
+        TicketStatistics stats = ticketRepository.aggregateStatistics();
+
+        assertThat(stats.getTotalActive()).isEqualTo(count("SELECT COUNT(*) FROM tickets WHERE archived = FALSE"));
+        assertThat(stats.getTotalArchived()).isEqualTo(
+                count("SELECT COUNT(*) FROM tickets WHERE archived = TRUE")
+                        + count("SELECT COUNT(*) FROM tickets_archive"));
+        assertThat(stats.getByStatus()).isEqualTo(countPerBucket(Ticket.Status.values(), "status"));
+        assertThat(stats.getByPriority()).isEqualTo(countPerBucket(Ticket.Priority.values(), "priority"));
+        assertThat(stats.getByCategory()).isEqualTo(countPerBucket(Ticket.Category.values(), "category"));
+        assertThat(stats.getByPod()).isEqualTo(Map.of(
+                "pod-0", countActive("handled_by_pod", "pod-0"),
+                "pod-1", countActive("handled_by_pod", "pod-1"),
+                "pod-2", countActive("handled_by_pod", "pod-2")));
+        // No ticket is in the ARCHIVED status, so that bucket is missing rather than zero
+        assertThat(stats.getByStatus()).doesNotContainKey(Ticket.Status.ARCHIVED);
+    }
+
+    @Test
+    void emptyTablesGiveZeroTotalsAndNoBuckets() {
+        jdbcTemplate.update("DELETE FROM tickets");
+        jdbcTemplate.update("DELETE FROM tickets_archive");
+
+        TicketStatistics stats = ticketRepository.aggregateStatistics();
+
+        assertThat(stats.getTotalActive()).isZero();
+        assertThat(stats.getTotalArchived()).isZero();
+        assertThat(stats.getByStatus()).isEmpty();
+        assertThat(stats.getByPod()).isEmpty();
+    }
+
+    // Counts with no tickets are left out, as the aggregate has no row for them
+    private <E extends Enum<E>> Map<E, Long> countPerBucket(E[] values, String column) {
+        Map<E, Long> counts = new HashMap<>();
+        for (E value : values) {
+            long count = countActive(column, value.name());
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        }
+        return counts;
+    }
+
+    private long countActive(String column, String value) {
+        return count("SELECT COUNT(*) FROM tickets WHERE " + column + " = ? AND archived = FALSE", value);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,305 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.EmailOutbox;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the outbox against H2 with a stubbed mail sender: which rows a batch claims and leases,
+ * reclaiming an expired lease, skipping rows another claim holds, the backoff between failed
+ * attempts up to giving up, purging sent rows, and that an email is only queued if the ticket
+ * transaction around it commits.
+ */
+@SpringBootTest(properties = {
+        "app.email.transport.pooled=false",
+        "app.email.outbox.poll-interval=PT1H",
+        "app.email.outbox.purge-interval=PT1H",
+        "app.email.outbox.batch-size=3",
+        "app.email.outbox.max-attempts=4",
+        "app.email.outbox.initial-backoff=PT30S",
+        "app.email.outbox.max-backoff=PT1M",
+        "app.email.outbox.retention=P7D",
+        "app.archive.initial-delay=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:email_outbox_test"
+})
+class EmailOutboxDispatcherTest {
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    @BeforeEach
+    void clearOutbox() {
+        jdbcTemplate.update("DELETE FROM email_outbox");
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+    }
+
+    @Test
+    void batchClaimsDueRowsInIdOrderAndMarksThemSent() {
+        OffsetDateTime now = OffsetDateTime.now();
+        for (long id = 1; id <= 4; id++) {
+            insert(id, "PENDING", 0, now.minusMinutes(1), null, null);
+        }
+        insert(5, "PENDING", 0, now.plusMinutes(5), null, null);
+        insert(6, "PENDING", 0, now.minusMinutes(1), "other-pod/1", now.plusMinutes(1));
+        insert(7, "FAILED", 8, now.minusMinutes(1), null, null);
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(3);
+
+        verify(mailSender).send(any(MimeMessage[].class));
+        assertThat(statuses()).containsExactly("SENT", "SENT", "SENT", "PENDING", "PENDING", "PENDING", "FAILED");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT id FROM email_outbox WHERE status = 'SENT' AND attempts = 1 AND locked_by IS NULL"
+                        + " AND locked_until IS NULL AND sent_at IS NOT NULL ORDER BY id", Long.class))
+                .containsExactly(1L, 2L, 3L);
+        // The other replica's lease is left alone
+        assertThat(jdbcTemplate.queryForObject("SELECT locked_by FROM email_outbox WHERE id = 6", String.class))
+                .isEqualTo("other-pod/1");
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(1);
+        assertThat(dispatcher.dispatchBatch()).isZero();
+    }
+
+    @Test
+    void expiredLeaseIsClaimedAgain() {
+        OffsetDateTime now = OffsetDateTime.now();
+        // Leased by a replica that died mid-send
+        insert(1, "PENDING", 0, now.minusMinutes(5), "dead-pod/1", now.minusSeconds(1));
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(1);
+
+        assertThat(statuses()).containsExactly("SENT");
+    }
+
+    @Test
+    void rowsLockedByAnotherClaimAreSkipped() throws Exception {
+        OffsetDateTime now = OffsetDateTime.now();
+        for (long id = 1; id <= 4; id++) {
+            insert(id, "PENDING", 0, now.minusMinutes(1), null, null);
+        }
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Another replica's claim holds the first two rows. Not via lockDue itself: H2 locks every
+        // row the index scan matches before ORDER BY and LIMIT apply, PostgreSQL only the batch.
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM email_outbox WHERE id IN (1, 2) ORDER BY id FOR UPDATE", Long.class);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ids;
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<Long> second = transactionTemplate.execute(status ->
+                ids(emailOutboxRepository.lockDue(ZonedDateTime.now(), 10)));
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).containsExactly(1L, 2L);
+        assertThat(second).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void staleOwnerCannotRecordTheOutcome() {
+        insert(1, "PENDING", 0, OffsetDateTime.now().minusMinutes(1), null, null);
+        ZonedDateTime now = ZonedDateTime.now();
+
+        Integer marked = transactionTemplate.execute(status -> {
+            emailOutboxRepository.lease(List.of(1L), "new-owner", now.plusMinutes(2));
+            return emailOutboxRepository.markSent(List.of(1L), "old-owner", now)
+                    + emailOutboxRepository.markFailed(1L, "old-owner", EmailOutbox.Status.FAILED, 1, now, "late");
+        });
+
+        assertThat(marked).isZero();
+        assertThat(jdbcTemplate.queryForMap("SELECT status, locked_by FROM email_outbox WHERE id = 1"))
+                .containsEntry("STATUS", "PENDING")
+                .containsEntry("LOCKED_BY", "new-owner");
+    }
+
+    @Test
+    void failedSendBacksOffExponentiallyThenGivesUp() {
+        insert(1, "PENDING", 0, OffsetDateTime.now().minusMinutes(1), null, null);
+        doThrow(new MailSendException("Relay down")).when(mailSender).send(any(MimeMessage[].class));
+        double retrying = failures("retrying");
+        double gaveUp = failures("gave_up");
+
+        // 30s, doubled to 60s, then capped at max-backoff
+        for (Duration backoff : List.of(Duration.ofSeconds(30), Duration.ofSeconds(60), Duration.ofSeconds(60))) {
+            OffsetDateTime before = OffsetDateTime.now();
+            assertThat(dispatcher.dispatchBatch()).isEqualTo(1);
+
+            Map<String, Object> row = row(1);
+            assertThat(row).containsEntry("STATUS", "PENDING").containsEntry("LAST_ERROR", "Relay down");
+            assertThat(row.get("LOCKED_BY")).isNull();
+            assertThat(nextAttemptAt(1)).isCloseTo(before.plus(backoff), within(5, ChronoUnit.SECONDS));
+            // Not due again until the backoff has passed
+            assertThat(dispatcher.dispatchBatch()).isZero();
+            makeDue(1);
+        }
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(1);
+
+        assertThat(row(1)).containsEntry("STATUS", "FAILED").containsEntry("ATTEMPTS", 4);
+        assertThat(dispatcher.dispatchBatch()).isZero();
+        assertThat(failures("retrying") - retrying).isEqualTo(3);
+        assertThat(failures("gave_up") - gaveUp).isEqualTo(1);
+    }
+
+    @Test
+    void oneRejectedMessageDoesNotFailTheRestOfTheBatch() {
+        OffsetDateTime now = OffsetDateTime.now();
+        for (long id = 1; id <= 3; id++) {
+            insert(id, "PENDING", 0, now.minusMinutes(1), null, null);
+        }
+        doAnswer(invocation -> {
+            // Mockito expands the varargs array, so the second message is the second argument
+            MimeMessage second = invocation.getArgument(1);
+            throw new MailSendException(Map.of(second, new MessagingException("Mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        dispatcher.dispatchBatch();
+
+        assertThat(statuses()).containsExactly("SENT", "PENDING", "SENT");
+        assertThat(row(2)).containsEntry("ATTEMPTS", 1).containsEntry("LAST_ERROR", "Mailbox unavailable");
+    }
+
+    @Test
+    void purgeDeletesOnlySentRowsPastRetention() {
+        OffsetDateTime now = OffsetDateTime.now();
+        insert(1, "SENT", 1, now.minusDays(10), null, null);
+        jdbcTemplate.update("UPDATE email_outbox SET sent_at = ? WHERE id = 1", now.minusDays(8));
+        insert(2, "SENT", 1, now.minusDays(1), null, null);
+        jdbcTemplate.update("UPDATE email_outbox SET sent_at = ? WHERE id = 2", now.minusDays(1));
+        insert(3, "FAILED", 4, now.minusDays(30), null, null);
+        insert(4, "PENDING", 0, now.minusDays(30), null, null);
+
+        dispatcher.purgeSent();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM email_outbox ORDER BY id", Long.class))
+                .containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void emailIsQueuedOnlyIfTheTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendTicketCreatedEmail(ticket(1L));
+            status.setRollbackOnly();
+        });
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Long.class)).isZero();
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+
+        transactionTemplate.executeWithoutResult(status -> emailService.sendTicketCreatedEmail(ticket(2L)));
+
+        assertThat(jdbcTemplate.queryForList("SELECT ticket_id FROM email_outbox", Long.class)).containsExactly(2L);
+        // The commit wakes the dispatcher, which sends it
+        await().atMost(Duration.ofSeconds(5)).until(() -> statuses().equals(List.of("SENT")));
+    }
+
+    private void insert(long id, String status, int attempts, OffsetDateTime nextAttemptAt,
+                        String lockedBy, OffsetDateTime lockedUntil) {
+        jdbcTemplate.update("""
+                        INSERT INTO email_outbox (id, ticket_id, recipient, subject, body, status, attempts,
+                                                  next_attempt_at, locked_by, locked_until, created_at)
+                        VALUES (?, ?, ?, 'Your ticket', 'Hello', ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+                        """,
+                id, id, "customer" + id + "@example.com", status, attempts, nextAttemptAt, lockedBy, lockedUntil);
+    }
+
+    private void makeDue(long id) {
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ? WHERE id = ?",
+                OffsetDateTime.now().minusSeconds(1), id);
+    }
+
+    // Statuses in id order
+    private List<String> statuses() {
+        return jdbcTemplate.queryForList("SELECT status FROM email_outbox ORDER BY id", String.class);
+    }
+
+    private Map<String, Object> row(long id) {
+        return jdbcTemplate.queryForMap(
+                "SELECT status, attempts, locked_by, last_error FROM email_outbox WHERE id = ?", id);
+    }
+
+    private OffsetDateTime nextAttemptAt(long id) {
+        return jdbcTemplate.queryForObject("SELECT next_attempt_at FROM email_outbox WHERE id = ?",
+                OffsetDateTime.class, id);
+    }
+
+    private double failures(String outcome) {
+        return meterRegistry.counter("app.email.failures", "outcome", outcome).count();
+    }
+
+    private static List<Long> ids(List<EmailOutbox> emails) {
+        return emails.stream().map(EmailOutbox::getId).toList();
+    }
+
+    private static Ticket ticket(Long id) {
+        return Ticket.builder()
+                .id(id)
+                .ticketNumber("TKT-OUTBOX-" + id)
+                .subject("Printer on fire")
+                .description("It is on fire")
+                .priority(Ticket.Priority.HIGH)
+                .category(Ticket.Category.TECHNICAL)
+                .status(Ticket.Status.NEW)
+                .customerName("Ada")
+                .customerEmail("ada@example.com")
+                .createdAt(ZonedDateTime.now())
+                .archived(false)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compiles and renders email templates: the subject header and placeholders, templates that
+ * must fail at startup, HTML escaping of customer-supplied values, and files in the override
+ * location replacing the bundled ones.
+ */
+class EmailTemplatesTest {
+
+    private static final Ticket TICKET = Ticket.builder()
+            .id(1L)
+            .ticketNumber("TKT-1")
+            .subject("Printer <b>broken</b> & \"smoking\"")
+            .priority(Ticket.Priority.HIGH)
+            .category(Ticket.Category.TECHNICAL)
+            .status(Ticket.Status.IN_PROGRESS)
+            .customerName("<script>alert('x')</script>")
+            .customerEmail("ada@example.com")
+            .build();
+
+    @TempDir
+    private Path overrides;
+
+    @Test
+    void compileSplitsTheSubjectAndFillsPlaceholders() {
+        EmailTemplate template = EmailTemplate.compile("test",
+                "Subject: Ticket {{ticketNumber}}\r\n\r\nHi {{ customerName }},\r\nagent: [{{assignedTo}}]{{commentSection}}",
+                null);
+
+        EmailTemplate.Rendered rendered = template.render(
+                new EmailModel(TICKET.toBuilder().customerName("Ada").build(), Ticket.Status.NEW, "On it"));
+
+        assertThat(rendered.subject()).isEqualTo("Ticket TKT-1");
+        assertThat(rendered.text()).isEqualTo("Hi Ada,\nagent: []\nAgent Comment: On it\n");
+        assertThat(rendered.html()).isNull();
+    }
+
+    @Test
+    void brokenTemplatesFailToCompile() {
+        assertThatThrownBy(() -> EmailTemplate.compile("no-subject", "Hello {{customerName}}\n", null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("must start with a 'Subject:' line");
+        assertThatThrownBy(() -> EmailTemplate.compile("unclosed", "Subject: x\n\nHello {{customerName\n", null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Unclosed placeholder in email template unclosed");
+        assertThatThrownBy(() -> EmailTemplate.compile("unknown", "Subject: x\n\nok", "<p>{{password}}</p>"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Unknown placeholder {{password}} in email template unknown");
+    }
+
+    @Test
+    void htmlEscapesCustomerValuesAndTextKeepsThem() {
+        EmailTemplate template = EmailTemplate.compile("test",
+                "Subject: {{subject}}\n\n{{customerName}}: {{subject}}", "<p>{{customerName}}</p><p>{{subject}}</p>");
+
+        EmailTemplate.Rendered rendered = template.render(EmailModel.of(TICKET));
+
+        assertThat(rendered.html()).isEqualTo("<p>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;</p>"
+                + "<p>Printer &lt;b&gt;broken&lt;/b&gt; &amp; &quot;smoking&quot;</p>");
+        assertThat(rendered.text()).isEqualTo(TICKET.getCustomerName() + ": " + TICKET.getSubject());
+        assertThat(rendered.subject()).isEqualTo(TICKET.getSubject());
+    }
+
+    @Test
+    void everyBundledTemplateRendersTextAndEscapedHtml() {
+        EmailTemplates templates = new EmailTemplates(new DefaultResourceLoader(), "");
+
+        for (EmailTemplates.Name name : EmailTemplates.Name.values()) {
+            EmailTemplate.Rendered rendered = templates.get(name)
+                    .render(new EmailModel(TICKET, Ticket.Status.NEW, "<i>soon</i>"));
+
+            assertThat(rendered.subject()).as("%s subject", name).isNotBlank().doesNotContain("{{");
+            assertThat(rendered.text()).as("%s text", name).doesNotContain("{{");
+            assertThat(rendered.html()).as("%s html", name)
+                    .doesNotContain("{{")
+                    .doesNotContain("<script>")
+                    .doesNotContain("<i>soon</i>");
+        }
+    }
+
+    @Test
+    void overrideLocationReplacesOnlyTheTemplatesItHas() throws IOException {
+        Files.writeString(overrides.resolve("ticket-created.txt"), "Subject: Welcome {{ticketNumber}}\n\nCustom body");
+
+        // Without the trailing slash, as a path would usually be written
+        EmailTemplates templates = new EmailTemplates(new DefaultResourceLoader(), overrides.toUri().toString()
+                .replaceAll("/$", ""));
+
+        EmailTemplate.Rendered created = templates.get(EmailTemplates.Name.TICKET_CREATED).render(EmailModel.of(TICKET));
+        assertThat(created.subject()).isEqualTo("Welcome TKT-1");
+        assertThat(created.text()).isEqualTo("Custom body");
+        // The bundled HTML still applies, as the override has none
+        assertThat(created.html()).contains("Your support ticket has been created successfully.");
+        assertThat(templates.get(EmailTemplates.Name.TICKET_CLOSED).render(EmailModel.of(TICKET)).subject())
+                .contains("TKT-1");
+    }
+
+    @Test
+    void brokenOverrideFailsAtStartup() throws IOException {
+        Files.writeString(overrides.resolve("ticket-closed.html"), "<p>{{customerNmae}}</p>");
+
+        assertThatThrownBy(() -> new EmailTemplates(new DefaultResourceLoader(), overrides.toUri().toString()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("{{customerNmae}}");
+    }
+}
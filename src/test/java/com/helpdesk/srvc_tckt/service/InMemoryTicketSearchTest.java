@@ -0,0 +1,151 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import com.helpdesk.srvc_tckt.event.TicketSnapshot;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import com.helpdesk.srvc_tckt.repository.TicketRepositoryCustom.SearchText;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Builds {@link InMemoryTicketSearch} from a stubbed ticket scan and checks tokenising, the
+ * ranking of subject over description hits and of rare over common terms, that committed
+ * changes update the index, and that only the requested page of summaries is ever loaded.
+ */
+class InMemoryTicketSearchTest {
+
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+    // Ids that are no longer live tickets, as findSummariesByIds leaves them out
+    private final Set<Long> gone = new HashSet<>();
+    private InMemoryTicketSearch search;
+
+    @BeforeEach
+    void buildIndex() {
+        List<SearchText> tickets = List.of(
+                new SearchText(1L, "Printer", "Toner low"),
+                new SearchText(2L, "Toner", "For the printer"),
+                new SearchText(3L, "Printer offline", null),
+                new SearchText(4L, "Printer jam", ""));
+        doAnswer(invocation -> {
+            Consumer<SearchText> consumer = invocation.getArgument(0);
+            tickets.forEach(consumer);
+            return null;
+        }).when(ticketRepository).scanSearchText(any());
+        when(ticketRepository.findSummariesByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> !gone.contains(id)).map(InMemoryTicketSearchTest::summary).toList();
+        });
+
+        search = new InMemoryTicketSearch(ticketRepository);
+        search.build();
+    }
+
+    @Test
+    void tokenizeLowerCasesAndDropsStopWordsAndSingleCharacters() {
+        assertThat(InMemoryTicketSearch.tokenize("The printer's on FIRE! Error-42, café a b"))
+                .containsExactly("printer", "fire", "error", "42", "café");
+        assertThat(InMemoryTicketSearch.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void subjectHitsRankAboveDescriptionHitsAndTiesGoToTheNewest() {
+        assertThat(ids(search.search("printer", 0, 10))).containsExactly(4L, 3L, 1L, 2L);
+    }
+
+    @Test
+    void rareTermOutweighsACommonOne() {
+        // "toner" is in two tickets, "printer" in all four, so a subject hit on toner wins
+        assertThat(ids(search.search("Printer TONER", 0, 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        assertThat(search.search("printer offline", 0, 10)).extracting(TicketSummary::id).containsExactly(3L);
+        assertThat(search.search("printer scanner", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void queryOfOnlyStopWordsFindsNothingWithoutReadingTickets() {
+        assertThat(search.search("the and of", 0, 10)).isEmpty();
+        assertThat(search.search(null, 0, 10)).isEmpty();
+
+        verify(ticketRepository, never()).findSummariesByIds(anyCollection());
+    }
+
+    @Test
+    void onlyTheRequestedPageIsLoaded() {
+        assertThat(ids(search.search("printer", 1, 2))).containsExactly(3L, 1L);
+        verify(ticketRepository).findSummariesByIds(List.of(3L, 1L));
+
+        assertThat(search.search("printer", 4, 2)).isEmpty();
+        verify(ticketRepository, never()).findSummariesByIds(List.of());
+    }
+
+    @Test
+    void ticketGoneSinceRankingDropsOutOfThePage() {
+        gone.add(3L);
+
+        assertThat(ids(search.search("printer", 0, 10))).containsExactly(4L, 1L, 2L);
+    }
+
+    @Test
+    void committedChangesUpdateTheIndex() {
+        search.onTicketChanged(event(TicketChangedEvent.Type.CREATED, 5L, "Scanner broken", "Printer fine", false));
+        assertThat(ids(search.search("scanner", 0, 10))).containsExactly(5L);
+        assertThat(search.size()).isEqualTo(5);
+
+        // The old text no longer matches once the ticket is edited
+        search.onTicketChanged(event(TicketChangedEvent.Type.UPDATED, 5L, "Monitor flickers", "", false));
+        assertThat(search.search("scanner", 0, 10)).isEmpty();
+        assertThat(ids(search.search("monitor", 0, 10))).containsExactly(5L);
+
+        // Status changes leave the text alone, archiving takes the ticket out
+        search.onTicketChanged(event(TicketChangedEvent.Type.RESOLVED, 5L, null, null, false));
+        assertThat(ids(search.search("monitor", 0, 10))).containsExactly(5L);
+        search.onTicketChanged(event(TicketChangedEvent.Type.ARCHIVED, 5L, "Monitor flickers", "", true));
+        assertThat(search.search("monitor", 0, 10)).isEmpty();
+        assertThat(search.size()).isEqualTo(4);
+    }
+
+    private static List<Long> ids(List<TicketSummary> summaries) {
+        return summaries.stream().map(TicketSummary::id).toList();
+    }
+
+    private static TicketSummary summary(Long id) {
+        return new TicketSummary(id, "TKT-" + id, "Ticket " + id, Ticket.Status.NEW, Ticket.Priority.MEDIUM,
+                Ticket.Category.TECHNICAL, "Ada", "ada@example.com", null, null, ZonedDateTime.now());
+    }
+
+    private static TicketChangedEvent event(TicketChangedEvent.Type type, Long id, String subject,
+                                            String description, boolean archived) {
+        Ticket ticket = Ticket.builder()
+                .id(id)
+                .subject(subject)
+                .description(description)
+                .status(archived ? Ticket.Status.ARCHIVED : Ticket.Status.NEW)
+                .priority(Ticket.Priority.MEDIUM)
+                .category(Ticket.Category.TECHNICAL)
+                .archived(archived)
+                .build();
+        TicketSnapshot previous = TicketSnapshot.of(ticket.toBuilder().archived(false).build());
+        return TicketChangedEvent.of(type, ticket, previous, ZonedDateTime.now());
+    }
+}
@@ -0,0 +1,141 @@
+package com.helpdesk.srvc_tckt.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Sends the same volume through a connect-per-message sender (what EmailService used to do)
+ * and through the pooled sender in outbox-sized batches, against an in-process SMTP server
+ * with 1 ms of simulated latency per reply. The throughput comparison is tagged "load"; the
+ * connection counts behind it are checked on every build.
+ */
+@Slf4j
+class PooledJavaMailSenderTest {
+
+    private static final int MESSAGES = 300;
+    private static final int BATCH_SIZE = 50;
+    private static final double MIN_SPEEDUP = 1.5;
+
+    private FakeSmtpServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new FakeSmtpServer(Duration.ofMillis(1));
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void pooledBatchesReuseAFewConnections() throws Exception {
+        JavaMailSenderImpl perMessage = configure(new JavaMailSenderImpl());
+        sendOneByOne(perMessage);
+        int perMessageConnections = server.getConnectionCount();
+
+        PooledJavaMailSender pooled = configure(new PooledJavaMailSender(4, Duration.ofMinutes(1)));
+        try {
+            sendInBatches(pooled);
+            int pooledConnections = server.getConnectionCount() - perMessageConnections;
+
+            assertThat(server.getMessageCount()).isEqualTo(MESSAGES * 2);
+            assertThat(perMessageConnections).isEqualTo(MESSAGES);
+            assertThat(pooledConnections).isLessThanOrEqualTo(4);
+        } finally {
+            pooled.destroy();
+        }
+    }
+
+    // Wall-clock comparison, so it runs with the load tests rather than on every build
+    @Test
+    @Tag("load")
+    void pooledBatchesOutperformAConnectionPerMessage() throws Exception {
+        double perMessageRate = sendOneByOne(configure(new JavaMailSenderImpl()));
+
+        PooledJavaMailSender pooled = configure(new PooledJavaMailSender(4, Duration.ofMinutes(1)));
+        try {
+            double pooledRate = sendInBatches(pooled);
+            log.info("{} messages: {} msg/s with a connection per message, {} msg/s pooled in batches of {}",
+                    MESSAGES, Math.round(perMessageRate), Math.round(pooledRate), BATCH_SIZE);
+
+            // Each message saves a connect, greeting, EHLO and QUIT round trip, so the real gap
+            // is several times this margin
+            assertThat(pooledRate)
+                    .as("pooled msg/s against %.0f msg/s per message", perMessageRate)
+                    .isGreaterThan(perMessageRate * MIN_SPEEDUP);
+        } finally {
+            pooled.destroy();
+        }
+    }
+
+    @Test
+    void idleConnectionsAreEvicted() throws Exception {
+        PooledJavaMailSender pooled = configure(new PooledJavaMailSender(2, Duration.ofMillis(50)));
+        try {
+            pooled.send(message(pooled, 1), message(pooled, 2));
+            assertThat(pooled.getIdleConnectionCount()).isEqualTo(2);
+
+            Thread.sleep(100);
+            pooled.evictIdle();
+
+            assertThat(pooled.getIdleConnectionCount()).isZero();
+            await().atMost(Duration.ofSeconds(5)).until(() -> server.getOpenConnections() == 0);
+        } finally {
+            pooled.destroy();
+        }
+    }
+
+    private <T extends JavaMailSenderImpl> T configure(T sender) {
+        sender.setHost("localhost");
+        sender.setPort(server.getPort());
+        return sender;
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl sender, int index) throws MessagingException {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom("noreply@helpdesk.local");
+        helper.setTo("customer" + index + "@example.com");
+        helper.setSubject("Ticket Created: TKT-" + index);
+        helper.setText("Hello,\n\nYour support ticket has been created successfully.\n");
+        return message;
+    }
+
+    // Returns the send rate in messages per second
+    private double sendOneByOne(JavaMailSenderImpl sender) throws MessagingException {
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            sender.send(message(sender, i));
+        }
+        return rate(start);
+    }
+
+    private double sendInBatches(PooledJavaMailSender sender) throws MessagingException {
+        long start = System.nanoTime();
+        for (int from = 0; from < MESSAGES; from += BATCH_SIZE) {
+            MimeMessage[] batch = new MimeMessage[BATCH_SIZE];
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch[i] = message(sender, from + i);
+            }
+            sender.send(batch);
+        }
+        return rate(start);
+    }
+
+    private static double rate(long startNanos) {
+        return MESSAGES / (Duration.ofNanos(System.nanoTime() - startNanos).toMillis() / 1000.0);
+    }
+}
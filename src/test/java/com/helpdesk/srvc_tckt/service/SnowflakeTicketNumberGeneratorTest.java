@@ -0,0 +1,83 @@
+package com.helpdesk.srvc_tckt.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnowflakeTicketNumberGeneratorTest {
+
+    @Test
+    void threeReplicasUnderContentionNeverRepeatANumber() throws Exception {
+        int replicas = 3;
+        int threadsPerReplica = 8;
+        int numbersPerThread = 50_000;
+        List<SnowflakeTicketNumberGenerator> generators = new ArrayList<>();
+        for (int node = 0; node < replicas; node++) {
+            generators.add(new SnowflakeTicketNumberGenerator(node));
+        }
+
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(replicas * threadsPerReplica)) {
+            for (SnowflakeTicketNumberGenerator generator : generators) {
+                for (int t = 0; t < threadsPerReplica; t++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < numbersPerThread; i++) {
+                            seen.add(generator.next());
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        assertThat(seen).hasSize(replicas * threadsPerReplica * numbersPerThread);
+    }
+
+    @Test
+    void staysMonotonicWhenTheClockStepsBackOrTheSequenceOverflows() {
+        AtomicLong clock = new AtomicLong(SnowflakeTicketNumberGenerator.EPOCH_MILLIS + 1_000);
+        SnowflakeTicketNumberGenerator generator = new SnowflakeTicketNumberGenerator(7, clock::get);
+
+        long previous = -1;
+        for (int i = 0; i < 10_000; i++) { // more than 4096 in the same millisecond
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+        clock.addAndGet(-500);
+        assertThat(generator.nextId()).isGreaterThan(previous);
+    }
+
+    @Test
+    void rendersAFixedWidthNumber() {
+        String number = new SnowflakeTicketNumberGenerator(1).next();
+
+        assertThat(number).matches("TKT-[0-9A-HJKMNP-TV-Z]{13}");
+    }
+
+    @Test
+    void takesTheNodeIdFromAStatefulSetOrdinal() {
+        assertThat(SnowflakeTicketNumberGenerator.ordinalOf("srvc-tckt-0")).isZero();
+        assertThat(SnowflakeTicketNumberGenerator.ordinalOf("srvc-tckt-12")).isEqualTo(12);
+        assertThat(SnowflakeTicketNumberGenerator.ordinalOf("srvc-tckt-7d9f8c6b5-x2k44")).isEqualTo(-1);
+        assertThat(SnowflakeTicketNumberGenerator.ordinalOf("srvc-tckt-5000")).isEqualTo(-1);
+        assertThat(SnowflakeTicketNumberGenerator.ordinalOf("local-dev")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,142 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketCreateRequest;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.EmailQueuedEvent;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Creates tickets in batches through {@link TicketService#createTickets}: every ticket gets its
+ * own id and ticket number, in request order and stored as returned, the created emails go to
+ * the outbox with a single dispatcher wake-up per batch, and a row the database rejects rolls
+ * back the whole batch with its emails. The dispatcher is mocked so nothing is sent.
+ */
+@SpringBootTest(properties = {
+        "app.archive.initial-delay=PT1H",
+        "app.tickets.max-bulk-size=10",
+        "spring.datasource.url=jdbc:h2:mem:ticket_bulk_create_test"
+})
+@RecordApplicationEvents
+class TicketBulkCreateTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @MockitoBean
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @BeforeEach
+    void clearTickets() {
+        jdbcTemplate.update("DELETE FROM email_outbox");
+        jdbcTemplate.update("DELETE FROM tickets");
+    }
+
+    @Test
+    void everyTicketGetsItsOwnIdAndNumberInRequestOrder() {
+        List<Ticket> first = ticketService.createTickets(requests("First", 5));
+        List<Ticket> second = ticketService.createTickets(requests("Second", 3));
+
+        assertThat(first).extracting(Ticket::getSubject)
+                .containsExactly("First 0", "First 1", "First 2", "First 3", "First 4");
+        List<Long> ids = ids(first, second);
+        assertThat(ids).doesNotHaveDuplicates().isSorted();
+        assertThat(ticketNumbers(first, second)).doesNotHaveDuplicates().allMatch(number -> number.startsWith("TKT-"));
+
+        // Stored with the id and number that were returned
+        for (Ticket ticket : first) {
+            assertThat(jdbcTemplate.queryForObject("SELECT ticket_number FROM tickets WHERE id = ?",
+                    String.class, ticket.getId())).isEqualTo(ticket.getTicketNumber());
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets", Long.class)).isEqualTo(8);
+        assertThat(events.stream(TicketChangedEvent.class)).hasSize(8)
+                .allMatch(event -> event.type() == TicketChangedEvent.Type.CREATED);
+    }
+
+    @Test
+    void batchQueuesAnEmailPerTicketAndWakesTheDispatcherOnce() {
+        List<Ticket> tickets = ticketService.createTickets(requests("Mail", 4));
+
+        assertThat(jdbcTemplate.queryForList("SELECT ticket_id FROM email_outbox ORDER BY id", Long.class))
+                .containsExactlyElementsOf(ids(tickets));
+        assertThat(jdbcTemplate.queryForList("SELECT subject FROM email_outbox", String.class))
+                .allMatch(subject -> subject.contains("TKT-"));
+        assertThat(events.stream(EmailQueuedEvent.class)).hasSize(1);
+    }
+
+    @Test
+    void importWithoutEmailsQueuesNone() {
+        ticketService.createTickets(requests("Import", 3), false);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets", Long.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Long.class)).isZero();
+        assertThat(events.stream(EmailQueuedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void rowTheDatabaseRejectsRollsBackTheWholeBatch() {
+        List<TicketCreateRequest> requests = requests("Valid", 4);
+        // Longer than the subject column; only the database checks it
+        requests.getLast().setSubject("x".repeat(300));
+
+        assertThatThrownBy(() -> ticketService.createTickets(requests)).isInstanceOf(DataAccessException.class);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Long.class)).isZero();
+    }
+
+    @Test
+    void batchOverTheLimitIsRefusedBeforeAnythingIsWritten() {
+        assertThatThrownBy(() -> ticketService.createTickets(requests("Too many", 11)))
+                .hasMessage("Cannot create more than 10 tickets at once");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets", Long.class)).isZero();
+    }
+
+    private static List<TicketCreateRequest> requests(String subject, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    TicketCreateRequest request = new TicketCreateRequest();
+                    request.setSubject(subject + " " + i);
+                    request.setDescription("It is on fire");
+                    request.setPriority(Ticket.Priority.HIGH);
+                    request.setCategory(Ticket.Category.TECHNICAL);
+                    request.setCustomerName("Ada");
+                    request.setCustomerEmail("ada" + i + "@example.com");
+                    return request;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @SafeVarargs
+    private static List<Long> ids(List<Ticket>... batches) {
+        return Arrays.stream(batches).flatMap(List::stream).map(Ticket::getId).toList();
+    }
+
+    @SafeVarargs
+    private static List<String> ticketNumbers(List<Ticket>... batches) {
+        return Arrays.stream(batches).flatMap(List::stream).map(Ticket::getTicketNumber).toList();
+    }
+}
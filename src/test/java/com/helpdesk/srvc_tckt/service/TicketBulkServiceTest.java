@@ -0,0 +1,158 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketBulkFilter;
+import com.helpdesk.srvc_tckt.dto.TicketBulkResult;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs bulk close and archive over seeded tickets, two per chunk, and checks the events
+ * published for each ticket, the customer emails written to the outbox and that a failing
+ * chunk leaves nothing of itself behind.
+ */
+@SpringBootTest(properties = {
+        "app.tickets.bulk-chunk-size=2",
+        "app.email.outbox.poll-interval=PT1H",
+        "app.archive.initial-delay=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:ticket_bulk_test"
+})
+@RecordApplicationEvents
+class TicketBulkServiceTest {
+
+    @Autowired
+    private TicketBulkService ticketBulkService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @MockitoSpyBean
+    private EmailService emailService;
+
+    @BeforeEach
+    void clearTickets() {
+        jdbcTemplate.update("DELETE FROM email_outbox");
+        jdbcTemplate.update("DELETE FROM tickets");
+        jdbcTemplate.update("DELETE FROM tickets_archive");
+    }
+
+    @Test
+    void closeResolvedPublishesAnEventAndQueuesOneEmailPerTicket() {
+        ZonedDateTime now = ZonedDateTime.now();
+        for (long id = 1; id <= 5; id++) {
+            insert(id, "RESOLVED", now.minusDays(10));
+        }
+        insert(6, "RESOLVED", now.minusDays(1));
+        insert(7, "IN_PROGRESS", null);
+        TicketBulkFilter filter = TicketBulkFilter.builder().resolvedBefore(now.minusDays(7)).build();
+
+        TicketBulkResult result = ticketBulkService.closeResolved(filter);
+
+        assertThat(result.getAffected()).isEqualTo(5);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(statuses()).containsExactly("CLOSED", "CLOSED", "CLOSED", "CLOSED", "CLOSED", "RESOLVED", "IN_PROGRESS");
+        List<TicketChangedEvent> published = events.stream(TicketChangedEvent.class).toList();
+        assertThat(published).extracting(event -> event.ticket().getId()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        assertThat(published).allSatisfy(event -> {
+            assertThat(event.type()).isEqualTo(TicketChangedEvent.Type.CLOSED);
+            assertThat(event.previous().status()).isEqualTo(Ticket.Status.RESOLVED);
+            assertThat(event.current().status()).isEqualTo(Ticket.Status.CLOSED);
+        });
+        assertThat(emailedTickets()).containsExactly(1L, 2L, 3L, 4L, 5L);
+
+        // Nothing is left to close, so a second run sends nothing again
+        assertThat(ticketBulkService.closeResolved(filter).getAffected()).isZero();
+        assertThat(emailedTickets()).containsExactly(1L, 2L, 3L, 4L, 5L);
+        verify(emailService, times(3)).sendTicketClosedEmails(anyList());
+    }
+
+    @Test
+    void archiveClosedPublishesAnEventPerTicketAndSendsNoEmail() {
+        ZonedDateTime now = ZonedDateTime.now();
+        for (long id = 1; id <= 3; id++) {
+            insert(id, "CLOSED", now.minusDays(100));
+        }
+        insert(4, "RESOLVED", now.minusDays(100));
+
+        TicketBulkResult result = ticketBulkService.archiveClosed(
+                TicketBulkFilter.builder().resolvedBefore(now.minusDays(90)).build());
+
+        assertThat(result.getAffected()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM tickets_archive ORDER BY id", Long.class))
+                .containsExactly(1L, 2L, 3L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM tickets", Long.class)).containsExactly(4L);
+        assertThat(events.stream(TicketChangedEvent.class))
+                .extracting(event -> event.ticket().getId(), TicketChangedEvent::type)
+                .containsExactlyInAnyOrder(
+                        tuple(1L, TicketChangedEvent.Type.ARCHIVED),
+                        tuple(2L, TicketChangedEvent.Type.ARCHIVED),
+                        tuple(3L, TicketChangedEvent.Type.ARCHIVED));
+        assertThat(emailedTickets()).isEmpty();
+    }
+
+    @Test
+    void failureRollsBackTheWholeChunk() {
+        ZonedDateTime now = ZonedDateTime.now();
+        for (long id = 1; id <= 4; id++) {
+            insert(id, "RESOLVED", now.minusDays(10));
+        }
+        // The first chunk goes through, the second fails after its UPDATE
+        doCallRealMethod()
+                .doThrow(new IllegalStateException("Outbox unavailable"))
+                .when(emailService).sendTicketClosedEmails(anyList());
+
+        assertThatThrownBy(() -> ticketBulkService.closeResolved(
+                TicketBulkFilter.builder().resolvedBefore(now.minusDays(7)).build()))
+                .isInstanceOf(IllegalStateException.class);
+
+        List<Long> closed = jdbcTemplate.queryForList(
+                "SELECT id FROM tickets WHERE status = 'CLOSED' ORDER BY id", Long.class);
+        assertThat(closed).hasSize(2);
+        assertThat(emailedTickets()).isEqualTo(closed);
+        // The failed chunk's tickets are untouched
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT version FROM tickets WHERE status = 'RESOLVED'", Long.class)).containsExactly(0L, 0L);
+    }
+
+    private void insert(long id, String status, ZonedDateTime resolvedAt) {
+        jdbcTemplate.update("""
+                        INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                             customer_name, customer_email, created_at, resolved_at, archived, version)
+                        VALUES (?, ?, ?, 'Printer on fire', 'HIGH', 'TECHNICAL', ?, 'Ada', ?,
+                                CURRENT_TIMESTAMP, ?, FALSE, 0)
+                        """,
+                id, "TKT-BULK-" + id, "Ticket " + id, status, "customer" + id + "@example.com",
+                resolvedAt != null ? resolvedAt.toOffsetDateTime() : null);
+    }
+
+    // Statuses in id order
+    private List<String> statuses() {
+        return jdbcTemplate.queryForList("SELECT status FROM tickets ORDER BY id", String.class);
+    }
+
+    // Ticket ids with a queued email, one entry per email
+    private List<Long> emailedTickets() {
+        return jdbcTemplate.queryForList("SELECT ticket_id FROM email_outbox ORDER BY ticket_id", Long.class);
+    }
+}
@@ -0,0 +1,173 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketUpdateRequest;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reads tickets through {@link TicketCache} and checks hits and misses, that callers get
+ * copies they cannot change the cache through, and that a ticket is evicted from this and
+ * another replica's cache when the transaction changing it commits, and only then.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "app.archive.initial-delay=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:ticket_cache_test"
+})
+class TicketCacheTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketCache ticketCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.datasource.url}")
+    private String databaseUrl;
+
+    @BeforeEach
+    void clearTickets() {
+        jdbcTemplate.update("DELETE FROM tickets");
+        ticketCache.clear();
+    }
+
+    @Test
+    void secondReadIsAHitAndSkipsTheDatabase() {
+        insert(1, "Printer on fire");
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        assertThat(ticketService.getTicketById(1L).getSubject()).isEqualTo("Printer on fire");
+        // Written behind the cache's back, so only a database read would see it
+        jdbcTemplate.update("UPDATE tickets SET subject = 'Changed' WHERE id = 1");
+
+        assertThat(ticketService.getTicketById(1L).getSubject()).isEqualTo("Printer on fire");
+        assertThat(gets("hit") - hits).isEqualTo(1);
+        assertThat(gets("miss") - misses).isEqualTo(1);
+    }
+
+    @Test
+    void missingTicketIsNotCached() {
+        assertThatThrownBy(() -> ticketService.getTicketById(2L)).hasMessage("Ticket not found with id: 2");
+
+        insert(2, "Arrived later");
+
+        assertThat(ticketService.getTicketById(2L).getSubject()).isEqualTo("Arrived later");
+    }
+
+    @Test
+    void callersGetCopiesTheyCannotChangeTheCacheThrough() {
+        Ticket loaded = Ticket.builder().id(3L).subject("Original").build();
+        Ticket first = ticketCache.get(3L, id -> Optional.of(loaded)).orElseThrow();
+        loaded.setSubject("Changed by the loader");
+        first.setSubject("Changed by a caller");
+
+        Ticket second = ticketCache.get(3L, id -> Optional.empty()).orElseThrow();
+
+        assertThat(second).isNotSameAs(first).isNotSameAs(loaded);
+        assertThat(second.getSubject()).isEqualTo("Original");
+    }
+
+    @Test
+    void committedChangeEvictsTheTicket() {
+        insert(4, "Before");
+        ticketService.getTicketById(4L);
+
+        ticketService.updateTicket(4L, TicketUpdateRequest.builder().subject("After").build());
+
+        assertThat(ticketService.getTicketById(4L).getSubject()).isEqualTo("After");
+    }
+
+    @Test
+    void rolledBackChangeKeepsTheEntry() {
+        insert(5, "Before");
+        ticketService.getTicketById(5L);
+        double misses = gets("miss");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ticketService.updateTicket(5L, TicketUpdateRequest.builder().subject("After").build());
+            status.setRollbackOnly();
+        });
+
+        assertThat(ticketService.getTicketById(5L).getSubject()).isEqualTo("Before");
+        assertThat(gets("miss")).isEqualTo(misses);
+    }
+
+    @Test
+    void otherReplicaEvictsOnlyOnceTheChangeCommits() {
+        insert(6, "Before");
+        insert(7, "Before");
+        TicketCache replica = new TicketCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        LocalTicketCacheInvalidator replicaInvalidator = new LocalTicketCacheInvalidator(replica, databaseUrl);
+        replicaInvalidator.register();
+        try {
+            AtomicInteger loads = new AtomicInteger();
+            replica.get(6L, id -> load(id, loads));
+            replica.get(7L, id -> load(id, loads));
+
+            transactionTemplate.executeWithoutResult(status -> {
+                ticketService.updateTicket(6L, TicketUpdateRequest.builder().subject("After").build());
+                // Not before the commit, or the replica could reload the old row
+                replica.get(6L, id -> load(id, loads));
+                assertThat(loads).hasValue(2);
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                ticketService.updateTicket(7L, TicketUpdateRequest.builder().subject("After").build());
+                status.setRollbackOnly();
+            });
+
+            assertThat(replica.get(6L, id -> load(id, loads)).orElseThrow().getSubject()).isEqualTo("After");
+            assertThat(replica.get(7L, id -> load(id, loads)).orElseThrow().getSubject()).isEqualTo("Before");
+            assertThat(loads).hasValue(3);
+        } finally {
+            replicaInvalidator.unregister();
+        }
+    }
+
+    private Optional<Ticket> load(Long id, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return Optional.of(Ticket.builder()
+                .id(id)
+                .subject(jdbcTemplate.queryForObject("SELECT subject FROM tickets WHERE id = ?", String.class, id))
+                .build());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "tickets").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private void insert(long id, String subject) {
+        jdbcTemplate.update("""
+                        INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                             customer_name, customer_email, created_at, archived, version)
+                        VALUES (?, ?, ?, 'It is on fire', 'HIGH', 'TECHNICAL', 'NEW', 'Ada', 'ada@example.com',
+                                CURRENT_TIMESTAMP, FALSE, 0)
+                        """,
+                id, "TKT-CACHE-" + id, subject);
+    }
+}
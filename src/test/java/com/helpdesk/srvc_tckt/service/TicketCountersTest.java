@@ -0,0 +1,123 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketStatistics;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import com.helpdesk.srvc_tckt.event.TicketSnapshot;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Moves {@link TicketCounters} with transitions over a stubbed aggregate: the first read loads
+ * the aggregate once, transitions move a ticket between breakdowns, reconciliation replaces
+ * whatever the counters drifted to, and a transition the aggregate already saw is counted twice
+ * until the next reconcile.
+ */
+class TicketCountersTest {
+
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+    private final TicketCounters counters = new TicketCounters(ticketRepository);
+
+    @Test
+    void firstReadLoadsTheAggregateOnce() {
+        when(ticketRepository.aggregateStatistics()).thenReturn(stats(3, 1, Map.of(Ticket.Status.NEW, 3L), Map.of()));
+
+        TicketStatistics first = counters.snapshot();
+        counters.snapshot();
+
+        verify(ticketRepository, times(1)).aggregateStatistics();
+        assertThat(first.getTotalActive()).isEqualTo(3);
+        assertThat(first.getTotalArchived()).isEqualTo(1);
+        assertThat(first.getByStatus()).containsExactly(Map.entry(Ticket.Status.NEW, 3L));
+    }
+
+    @Test
+    void transitionsMoveTheTicketBetweenBreakdowns() {
+        when(ticketRepository.aggregateStatistics()).thenReturn(stats(0, 0, Map.of(), Map.of()));
+        counters.reconcile();
+
+        TicketSnapshot created = snapshot(Ticket.Status.NEW, null, false);
+        TicketSnapshot assigned = snapshot(Ticket.Status.ASSIGNED, "pod-a", false);
+        counters.onTicketChanged(change(null, created));
+        counters.onTicketChanged(change(null, created));
+        counters.onTicketChanged(change(created, assigned));
+
+        TicketStatistics stats = counters.snapshot();
+        assertThat(stats.getTotalActive()).isEqualTo(2);
+        assertThat(stats.getByStatus()).containsOnly(
+                Map.entry(Ticket.Status.NEW, 1L), Map.entry(Ticket.Status.ASSIGNED, 1L));
+        assertThat(stats.getByPriority()).containsOnly(Map.entry(Ticket.Priority.HIGH, 2L));
+        assertThat(stats.getByCategory()).containsOnly(Map.entry(Ticket.Category.TECHNICAL, 2L));
+        assertThat(stats.getByPod()).containsOnly(Map.entry("pod-a", 1L));
+
+        // Archiving takes the ticket out of every active breakdown
+        counters.onTicketChanged(change(assigned, snapshot(Ticket.Status.CLOSED, "pod-a", true)));
+
+        stats = counters.snapshot();
+        assertThat(stats.getTotalActive()).isEqualTo(1);
+        assertThat(stats.getTotalArchived()).isEqualTo(1);
+        assertThat(stats.getByStatus()).containsOnly(Map.entry(Ticket.Status.NEW, 1L));
+        assertThat(stats.getByPod()).isEmpty();
+    }
+
+    @Test
+    void reconcileReplacesDriftedCounters() {
+        when(ticketRepository.aggregateStatistics())
+                .thenReturn(stats(0, 0, Map.of(), Map.of()))
+                .thenReturn(stats(5, 2, Map.of(Ticket.Status.IN_PROGRESS, 5L), Map.of("pod-b", 5L)));
+        counters.reconcile();
+        // Seen only on this replica, and long since moved on by another one
+        counters.onTicketChanged(change(null, snapshot(Ticket.Status.ASSIGNED, "pod-a", false)));
+
+        counters.reconcile();
+
+        TicketStatistics stats = counters.snapshot();
+        assertThat(stats.getTotalActive()).isEqualTo(5);
+        assertThat(stats.getTotalArchived()).isEqualTo(2);
+        assertThat(stats.getByStatus()).containsOnly(Map.entry(Ticket.Status.IN_PROGRESS, 5L));
+        assertThat(stats.getByPod()).containsOnly(Map.entry("pod-b", 5L));
+    }
+
+    @Test
+    void transitionAlreadyInTheAggregateIsDoubleCountedUntilTheNextReconcile() {
+        TicketStatistics withTicket = stats(1, 0, Map.of(Ticket.Status.NEW, 1L), Map.of());
+        when(ticketRepository.aggregateStatistics()).thenReturn(stats(0, 0, Map.of(), Map.of()), withTicket, withTicket);
+        counters.reconcile();
+
+        // Committed before the aggregate query, but its event is only applied after the reconcile
+        counters.reconcile();
+        counters.onTicketChanged(change(null, snapshot(Ticket.Status.NEW, null, false)));
+        assertThat(counters.snapshot().getTotalActive()).isEqualTo(2);
+
+        counters.reconcile();
+        assertThat(counters.snapshot().getTotalActive()).isEqualTo(1);
+        assertThat(counters.snapshot().getByStatus()).containsOnly(Map.entry(Ticket.Status.NEW, 1L));
+    }
+
+    private static TicketStatistics stats(long active, long archived, Map<Ticket.Status, Long> byStatus,
+                                          Map<String, Long> byPod) {
+        TicketStatistics stats = new TicketStatistics();
+        stats.setTotalActive(active);
+        stats.setTotalArchived(archived);
+        stats.getByStatus().putAll(byStatus);
+        stats.getByPod().putAll(byPod);
+        return stats;
+    }
+
+    private static TicketSnapshot snapshot(Ticket.Status status, String pod, boolean archived) {
+        return new TicketSnapshot(status, Ticket.Priority.HIGH, Ticket.Category.TECHNICAL, pod, archived);
+    }
+
+    private static TicketChangedEvent change(TicketSnapshot previous, TicketSnapshot current) {
+        return new TicketChangedEvent(TicketChangedEvent.Type.UPDATED, null, previous, current, ZonedDateTime.now());
+    }
+}
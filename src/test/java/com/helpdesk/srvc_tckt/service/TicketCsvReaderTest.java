@@ -0,0 +1,82 @@
+package com.helpdesk.srvc_tckt.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reads CSV edge cases through {@link TicketCsvReader}: quoting and escaped quotes, line breaks
+ * inside fields and the start line reported for each record, blank lines, a byte order mark,
+ * and the two ways a read fails.
+ */
+class TicketCsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndEmptyValues() throws IOException {
+        assertThat(readAll("plain,\"with, comma\",\"say \"\"hi\"\"\",,\"\"\r\nx"))
+                .containsExactly(List.of("plain", "with, comma", "say \"hi\"", "", ""), List.of("x"));
+    }
+
+    @Test
+    void quoteOnlyOpensAFieldAtItsStart() throws IOException {
+        assertThat(readAll("5\" floppy,a\"b")).containsExactly(List.of("5\" floppy", "a\"b"));
+    }
+
+    @Test
+    void recordLineCountsLineBreaksInsideQuotes() throws IOException {
+        try (TicketCsvReader reader = new TicketCsvReader(new StringReader(
+                "header\r\n\"one\r\ntwo\nthree\rfour\",x\n\n\r\nnext\rlast"), 1000)) {
+            assertThat(reader.readRecord()).containsExactly("header");
+            assertThat(reader.getRecordLine()).isEqualTo(1);
+
+            assertThat(reader.readRecord()).containsExactly("one\r\ntwo\nthree\rfour", "x");
+            assertThat(reader.getRecordLine()).isEqualTo(2);
+
+            // Blank lines are skipped but still counted
+            assertThat(reader.readRecord()).containsExactly("next");
+            assertThat(reader.getRecordLine()).isEqualTo(8);
+            assertThat(reader.readRecord()).containsExactly("last");
+            assertThat(reader.getRecordLine()).isEqualTo(9);
+            assertThat(reader.readRecord()).isNull();
+        }
+    }
+
+    @Test
+    void byteOrderMarkIsSkipped() throws IOException {
+        assertThat(readAll("\uFEFFsubject,description\n")).containsExactly(List.of("subject", "description"));
+    }
+
+    @Test
+    void unterminatedQuoteFails() {
+        assertThatThrownBy(() -> readAll("a,b\nc,\"never closed\nd,e\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unterminated quoted field in record starting on line 2");
+    }
+
+    @Test
+    void recordLongerThanTheLimitFails() throws IOException {
+        try (TicketCsvReader reader = new TicketCsvReader(new StringReader("short\n" + "x".repeat(11) + "\n"), 10)) {
+            assertThat(reader.readRecord()).containsExactly("short");
+            assertThatThrownBy(reader::readRecord)
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("Record starting on line 2 is longer than 10 characters");
+        }
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (TicketCsvReader reader = new TicketCsvReader(new StringReader(csv), 1000)) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,205 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketEventEntry;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import com.helpdesk.srvc_tckt.event.TicketSnapshot;
+import com.helpdesk.srvc_tckt.repository.TicketEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives {@link TicketEventRecorder} against an in-memory stand-in for {@code ticket_events}:
+ * batching, retry of a failed batch, merging of written and pending events on read, and
+ * dropping instead of waiting when the buffer is full.
+ */
+class TicketEventRecorderTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2026-01-05T09:00:00Z");
+
+    private final FakeEventRepository repository = new FakeEventRepository();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TicketEventRecorder recorder;
+
+    @AfterEach
+    void shutDown() throws InterruptedException {
+        repository.release();
+        if (recorder != null) {
+            recorder.flushOnShutdown();
+        }
+    }
+
+    @Test
+    void flushWritesFullBatchesUntilTheBufferIsEmpty() {
+        recorder = recorder(100, 2);
+        for (int i = 0; i < 5; i++) {
+            recorder.onTicketChanged(event(1L, i));
+        }
+
+        recorder.flush();
+
+        assertThat(repository.batches).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(repository.rows).hasSize(5);
+        assertThat(meterRegistry.get("app.ticket-events.written").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void failedBatchIsWrittenAgainOnTheNextFlush() {
+        recorder = recorder(100, 10);
+        recorder.onTicketChanged(event(1L, 0));
+        recorder.onTicketChanged(event(1L, 1));
+        repository.failuresLeft = 1;
+
+        recorder.flush();
+        assertThat(repository.rows).isEmpty();
+        recorder.flush();
+
+        assertThat(repository.batches).hasSize(2);
+        assertThat(repository.batches.get(1)).isEqualTo(repository.batches.get(0));
+        assertThat(repository.rows).hasSize(2);
+    }
+
+    @Test
+    void batchWhoseCommitFailsIsWrittenTwice() {
+        recorder = recorder(100, 10);
+        recorder.onTicketChanged(event(1L, 0));
+        // The rows reach the table but the commit is reported as failed
+        repository.failAfterWrite = true;
+        repository.failuresLeft = 1;
+
+        recorder.flush();
+        recorder.flush();
+
+        assertThat(repository.rows).hasSize(2).containsOnly(repository.rows.getFirst());
+    }
+
+    @Test
+    void eventsMergeWrittenInFlightAndBufferedOnesInTimeOrder() {
+        recorder = recorder(100, 10);
+        TicketEventEntry older = new TicketEventEntry(1L, TicketChangedEvent.Type.CREATED, null,
+                Ticket.Status.NEW, null, "pod-a", START.minusHours(1));
+        repository.rows.add(older);
+        // First two go in flight and fail, the rest stay buffered
+        repository.failuresLeft = 1;
+        for (int i = 0; i < 2; i++) {
+            recorder.onTicketChanged(event(1L, i));
+        }
+        recorder.flush();
+        recorder.onTicketChanged(event(1L, 2));
+        recorder.onTicketChanged(event(2L, 3));
+        // The in-flight batch reached the table, but has not been cleared yet
+        List<TicketEventEntry> inFlight = repository.batches.getFirst();
+        repository.rows.add(inFlight.getFirst());
+
+        List<TicketEventEntry> events = recorder.getEvents(1L);
+
+        assertThat(events).extracting(TicketEventEntry::occurredAt)
+                .containsExactly(START.minusHours(1), START, START.plusMinutes(1), START.plusMinutes(2));
+        assertThat(events).allSatisfy(event -> assertThat(event.ticketId()).isEqualTo(1L));
+    }
+
+    @Test
+    void fullBufferDropsEventsWhileTheFlushIsStuck() throws InterruptedException {
+        recorder = recorder(2, 2);
+        repository.blockInserts();
+        // A full batch hands itself to the flush thread, which then hangs on the insert
+        recorder.onTicketChanged(event(1L, 0));
+        recorder.onTicketChanged(event(1L, 1));
+        assertThat(repository.insertStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        recorder.onTicketChanged(event(1L, 2));
+        recorder.onTicketChanged(event(1L, 3));
+
+        // Dropped and counted on the spot, with the insert still hanging
+        recorder.onTicketChanged(event(1L, 4));
+
+        assertThat(meterRegistry.get("app.ticket-events.dropped").counter().count()).isEqualTo(1);
+        assertThat(repository.rows).isEmpty();
+        repository.release();
+        recorder.flush();
+        assertThat(repository.rows).hasSize(4);
+    }
+
+    private TicketEventRecorder recorder(int bufferSize, int batchSize) {
+        TicketEventRecorder recorder = new TicketEventRecorder(repository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry);
+        ReflectionTestUtils.setField(recorder, "podName", "pod-a");
+        ReflectionTestUtils.setField(recorder, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(recorder, "batchSize", batchSize);
+        recorder.init();
+        return recorder;
+    }
+
+    // The minute-th change of the ticket, one minute apart
+    private static TicketChangedEvent event(Long ticketId, int minute) {
+        Ticket ticket = Ticket.builder()
+                .id(ticketId)
+                .status(Ticket.Status.IN_PROGRESS)
+                .priority(Ticket.Priority.HIGH)
+                .category(Ticket.Category.TECHNICAL)
+                .archived(false)
+                .build();
+        TicketSnapshot previous = TicketSnapshot.of(ticket.toBuilder().status(Ticket.Status.ASSIGNED).build());
+        return TicketChangedEvent.of(TicketChangedEvent.Type.UPDATED, ticket, previous, START.plusMinutes(minute));
+    }
+
+    private static class FakeEventRepository extends TicketEventRepository {
+
+        final List<List<TicketEventEntry>> batches = new CopyOnWriteArrayList<>();
+        final List<TicketEventEntry> rows = new CopyOnWriteArrayList<>();
+        final CountDownLatch insertStarted = new CountDownLatch(1);
+        private volatile CountDownLatch blocked = new CountDownLatch(0);
+        volatile int failuresLeft;
+        volatile boolean failAfterWrite;
+
+        FakeEventRepository() {
+            super(null);
+        }
+
+        @Override
+        public void insertAll(List<TicketEventEntry> events) {
+            batches.add(List.copyOf(events));
+            insertStarted.countDown();
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failuresLeft > 0 && !failAfterWrite) {
+                failuresLeft--;
+                throw new IllegalStateException("Database unavailable");
+            }
+            rows.addAll(events);
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("Commit failed");
+            }
+        }
+
+        @Override
+        public List<TicketEventEntry> findByTicketId(Long ticketId) {
+            return new ArrayList<>(rows.stream().filter(row -> row.ticketId().equals(ticketId)).toList());
+        }
+
+        void blockInserts() {
+            blocked = new CountDownLatch(1);
+        }
+
+        void release() {
+            blocked.countDown();
+        }
+    }
+}
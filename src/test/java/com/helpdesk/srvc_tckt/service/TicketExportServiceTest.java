@@ -0,0 +1,158 @@
+package com.helpdesk.srvc_tckt.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports seeded tickets and reads the files back: CSV quoting and escaping, the guard against
+ * spreadsheet formulas, and an export larger than one fetch of rows.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:ticket_export_test"
+})
+class TicketExportServiceTest {
+
+    // More than one fetch (500 rows) from each of tickets and tickets_archive
+    private static final int ARCHIVED_TICKETS = 1200;
+
+    @Autowired
+    private TicketExportService ticketExportService;
+
+    @Autowired
+    private TicketImportService ticketImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void csvQuotesFieldsThatNeedIt() throws IOException {
+        insertTicket("quote-1", "Printer, scanner", "He said \"it's broken\"\r\nthen left", "Plain Name");
+
+        String csv = export(false, TicketFileFormat.CSV);
+        List<String> row = csvRow(csv, "quote-1");
+
+        assertThat(row.get(2)).isEqualTo("Printer, scanner");
+        assertThat(row.get(3)).isEqualTo("He said \"it's broken\"\r\nthen left");
+        assertThat(row.get(7)).isEqualTo("Plain Name");
+        assertThat(csv).contains(",\"Printer, scanner\",\"He said \"\"it's broken\"\"\r\nthen left\",");
+        assertThat(csv).contains(",Plain Name,");
+    }
+
+    @Test
+    void csvNeutralizesValuesASpreadsheetWouldEvaluate() throws IOException {
+        insertTicket("formula-1", "=HYPERLINK(\"http://evil.example\",\"Click\")", "+1+1", "-2");
+        insertTicket("formula-2", "@SUM(A1:A2)", "\tcmd", "\rcmd");
+
+        String csv = export(false, TicketFileFormat.CSV);
+        List<String> first = csvRow(csv, "formula-1");
+        List<String> second = csvRow(csv, "formula-2");
+
+        assertThat(first.get(2)).isEqualTo("'=HYPERLINK(\"http://evil.example\",\"Click\")");
+        assertThat(first.get(3)).isEqualTo("'+1+1");
+        assertThat(first.get(7)).isEqualTo("'-2");
+        assertThat(second.get(2)).isEqualTo("'@SUM(A1:A2)");
+        assertThat(second.get(3)).isEqualTo("'\tcmd");
+        assertThat(second.get(7)).isEqualTo("'\rcmd");
+        // Harmless values are left alone
+        assertThat(first.get(4)).isEqualTo("MEDIUM");
+    }
+
+    @Test
+    void importRemovesTheFormulaGuardAgain() {
+        String csv = "subject,description,priority,category,customerName,customerEmail\r\n"
+                + "'=1+2,'-minus,HIGH,GENERAL,'@name,roundtrip@example.com\r\n";
+
+        ticketImportService.importTickets(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TicketFileFormat.CSV, false);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT subject, description, customer_name FROM tickets WHERE customer_email = 'roundtrip@example.com'"))
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.get("SUBJECT")).isEqualTo("=1+2");
+                    assertThat(row.get("DESCRIPTION")).isEqualTo("-minus");
+                    assertThat(row.get("CUSTOMER_NAME")).isEqualTo("@name");
+                });
+    }
+
+    @Test
+    void archivedExportStreamsEveryRowAcrossFetches() throws IOException {
+        for (int i = 0; i < ARCHIVED_TICKETS; i++) {
+            if (i % 2 == 0) {
+                // Archived but not yet swept out of tickets
+                jdbcTemplate.update(insertSql("tickets", ", archived", ", TRUE"),
+                        "arch-" + i, "Archived " + i, "Old ticket", "Customer " + i);
+            } else {
+                jdbcTemplate.update(insertSql("tickets_archive", ", id, archived_at", ", ?, CURRENT_TIMESTAMP"),
+                        "arch-" + i, "Archived " + i, "Old ticket", "Customer " + i, 1_000_000L + i);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = ticketExportService.export(true, TicketFileFormat.CSV, out);
+
+        List<List<String>> rows = csvRows(out.toString(StandardCharsets.UTF_8));
+        assertThat(count).isEqualTo(ARCHIVED_TICKETS);
+        assertThat(rows).hasSize(ARCHIVED_TICKETS);
+        Set<String> numbers = new HashSet<>();
+        rows.forEach(row -> numbers.add(row.get(1)));
+        assertThat(numbers).hasSize(ARCHIVED_TICKETS);
+        assertThat(rows).allSatisfy(row -> assertThat(row.get(15)).isEqualTo("true"));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertThat(ticketExportService.export(true, TicketFileFormat.NDJSON, ndjson)).isEqualTo(ARCHIVED_TICKETS);
+        assertThat(ndjson.toString(StandardCharsets.UTF_8).lines()).hasSize(ARCHIVED_TICKETS);
+    }
+
+    private void insertTicket(String ticketNumber, String subject, String description, String customerName) {
+        jdbcTemplate.update(insertSql("tickets", "", ""), ticketNumber, subject, description, customerName);
+    }
+
+    private static String insertSql(String table, String extraColumns, String extraValues) {
+        return "INSERT INTO " + table + " (ticket_number, subject, description, priority, category, status,"
+                + " customer_name, customer_email, created_at" + extraColumns + ")"
+                + " VALUES (?, ?, ?, 'MEDIUM', 'GENERAL', 'CLOSED', ?, 'export@example.com', CURRENT_TIMESTAMP"
+                + extraValues + ")";
+    }
+
+    private String export(boolean archived, TicketFileFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ticketExportService.export(archived, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> csvRow(String csv, String ticketNumber) throws IOException {
+        return csvRows(csv).stream()
+                .filter(row -> row.get(1).equals(ticketNumber))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // Data rows, without the header
+    private static List<List<String>> csvRows(String csv) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (TicketCsvReader reader = new TicketCsvReader(new StringReader(csv), 1 << 20)) {
+            reader.readRecord();
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                rows.add(record);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,190 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketCreateRequest;
+import com.helpdesk.srvc_tckt.dto.TicketImportResult;
+import com.helpdesk.srvc_tckt.dto.TicketImportResult.RowError;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Imports CSV and NDJSON into H2 in batches of four and checks what is reported per row: a
+ * row only the database rejects is isolated by retrying halves of its batch, invalid rows are
+ * reported with the line they start on, the error list is capped, and a missing header column
+ * or a runaway record stops the import.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "app.archive.initial-delay=PT1H",
+        "app.import.batch-size=4",
+        "app.import.max-reported-errors=3",
+        "spring.datasource.url=jdbc:h2:mem:ticket_import_test"
+})
+class TicketImportServiceTest {
+
+    private static final String HEADER = "subject,description,priority,category,customerName,customerEmail\r\n";
+
+    @Autowired
+    private TicketImportService ticketImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private TicketService ticketService;
+
+    // Size of every createTickets call, in order
+    private final List<Integer> writes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void clearTickets() {
+        jdbcTemplate.update("DELETE FROM tickets");
+        // The database refuses any ticket with the subject "REJECTED"
+        doAnswer(invocation -> {
+            List<TicketCreateRequest> rows = invocation.getArgument(0);
+            writes.add(rows.size());
+            if (rows.stream().anyMatch(row -> row.getSubject().equals("REJECTED"))) {
+                throw new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("Check constraint violation: \"SUBJECT\"\nSQL statement: INSERT ..."));
+            }
+            return invocation.callRealMethod();
+        }).when(ticketService).createTickets(anyList(), anyBoolean());
+    }
+
+    @Test
+    void rowTheDatabaseRejectsIsIsolatedByRetryingHalves() {
+        TicketImportResult result = importCsv(HEADER
+                + row("First") + row("REJECTED") + row("Third") + row("Fourth")
+                + row("Fifth"));
+
+        assertThat(result.getRowsRead()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getErrors()).containsExactly(
+                new RowError(3, "Not saved: Check constraint violation: \"SUBJECT\""));
+        // The batch of four, its failing half, that half's two rows, its good half, the last row
+        assertThat(writes).containsExactly(4, 2, 1, 1, 2, 1);
+        assertThat(subjects()).containsExactlyInAnyOrder("First", "Third", "Fourth", "Fifth");
+    }
+
+    @Test
+    void invalidRowsAreReportedWithTheLineTheyStartOn() {
+        TicketImportResult result = importCsv(HEADER
+                + "\"Two\r\nlines\",\"Quoted, with comma\",HIGH,GENERAL,Ada,ada@example.com\r\n"
+                + ",No subject,HIGH,GENERAL,Ada,not-an-email\r\n"
+                + "Bad priority,x,SUPER,GENERAL,Ada,ada@example.com\r\n"
+                + "Too short,x\r\n"
+                + row("Last"));
+
+        assertThat(result.getRowsRead()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly(
+                new RowError(4, "customerEmail: Please provide a valid email address; subject: Subject is required"),
+                new RowError(5, "Unknown priority 'SUPER'"),
+                new RowError(6, "category: Category is required; customerEmail: Your email is required; "
+                        + "customerName: Your name is required; priority: Priority is required"));
+        assertThat(result.isErrorsTruncated()).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT description FROM tickets WHERE subject = 'Two\r\nlines'",
+                String.class)).isEqualTo("Quoted, with comma");
+    }
+
+    @Test
+    void headerIsMatchedLooselyAndTheFormulaGuardIsUndone() {
+        TicketImportResult result = importCsv("Customer Email,customer_name,Subject,DESCRIPTION,category,Priority\n"
+                + "grace@example.com,Grace,'=SUM(A1),  'not a guard  ,billing,high\n");
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForMap("SELECT subject, description, category, priority FROM tickets"))
+                .containsEntry("SUBJECT", "=SUM(A1)")
+                .containsEntry("DESCRIPTION", "'not a guard")
+                .containsEntry("CATEGORY", "BILLING")
+                .containsEntry("PRIORITY", "HIGH");
+    }
+
+    @Test
+    void errorListIsCappedButEveryFailureCounted() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 5; i++) {
+            csv.append("Missing email ").append(i).append(",x,LOW,GENERAL,Ada,\r\n");
+        }
+        csv.append(row("Good"));
+
+        TicketImportResult result = importCsv(csv.toString());
+
+        assertThat(result.getFailed()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(RowError::line).containsExactly(2L, 3L, 4L);
+        assertThat(result.isErrorsTruncated()).isTrue();
+    }
+
+    @Test
+    void missingHeaderColumnFailsTheImport() {
+        assertThatThrownBy(() -> importCsv("subject,description,priority,category,customerName\r\n"
+                + "Printer,x,LOW,GENERAL,Ada\r\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV header is missing columns: customeremail");
+        assertThat(subjects()).isEmpty();
+    }
+
+    @Test
+    void unterminatedQuoteStopsTheImportKeepingEarlierBatches() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 4; i++) {
+            csv.append(row("Row " + i));
+        }
+        csv.append("\"Never closed,x,LOW,GENERAL,Ada,ada@example.com\r\n").append(row("Swallowed"));
+
+        assertThatThrownBy(() -> importCsv(csv.toString()))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessage("Import stopped after 4 rows: Unterminated quoted field in record starting on line 6");
+        assertThat(subjects()).hasSize(4);
+    }
+
+    @Test
+    void ndjsonReportsBrokenLinesAndSkipsBlankOnes() {
+        String ndjson = """
+                {"subject":"Json","description":"x","priority":"LOW","category":"GENERAL","customerName":"Ada","customerEmail":"ada@example.com"}
+
+                {"subject":"Broken",
+                {"subject":"Bad email","description":"x","priority":"LOW","category":"GENERAL","customerName":"Ada","customerEmail":"nope"}
+                """;
+
+        TicketImportResult result = ticketImportService.importTickets(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), TicketFileFormat.NDJSON, false);
+
+        assertThat(result.getRowsRead()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(RowError::line).containsExactly(3L, 4L);
+        assertThat(result.getErrors().getFirst().message()).startsWith("Invalid JSON: ");
+        assertThat(result.getErrors().get(1).message()).isEqualTo("customerEmail: Please provide a valid email address");
+    }
+
+    private TicketImportResult importCsv(String csv) {
+        return ticketImportService.importTickets(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TicketFileFormat.CSV, false);
+    }
+
+    private static String row(String subject) {
+        return subject + ",Printer on fire,MEDIUM,TECHNICAL,Ada,ada@example.com\r\n";
+    }
+
+    private List<String> subjects() {
+        return jdbcTemplate.queryForList("SELECT subject FROM tickets", String.class);
+    }
+}
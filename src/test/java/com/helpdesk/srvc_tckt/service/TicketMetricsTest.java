@@ -0,0 +1,143 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Reads the meters ticket operations leave in the registry: every transition is timed under its
+ * operation name with the outcome its transaction had, a lost race also bumps the conflict
+ * counter, and the queue gauges report NEW tickets per priority and the age of the oldest.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "app.archive.initial-delay=PT1H",
+        "app.tickets.queue-metrics.interval=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:ticket_metrics_test"
+})
+class TicketMetricsTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketQueueMetrics ticketQueueMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void reset() {
+        jdbcTemplate.update("DELETE FROM tickets");
+        Search.in(meterRegistry).name(name -> name.startsWith("app.tickets.operation")
+                || name.startsWith("app.tickets.conflicts")).meters().forEach(meterRegistry::remove);
+    }
+
+    @Test
+    void committedTransitionIsTimedAsSuccess() {
+        insert(1, Ticket.Status.NEW, Ticket.Priority.HIGH, OffsetDateTime.now());
+
+        ticketService.assignToAgent(1L, "agent1");
+
+        assertThat(operations("assign", "success")).isEqualTo(1);
+        assertThat(meterRegistry.find("app.tickets.operation").tag("outcome", "success").timers()).hasSize(1);
+        assertThat(meterRegistry.find("app.tickets.conflicts").counter()).isNull();
+    }
+
+    @Test
+    void lostRaceIsTimedAsConflictAndCounted() {
+        insert(1, Ticket.Status.CLOSED, Ticket.Priority.HIGH, OffsetDateTime.now());
+
+        assertThatThrownBy(() -> ticketService.startProgress(1L)).isInstanceOf(TicketConflictException.class);
+
+        assertThat(operations("start_progress", "conflict")).isEqualTo(1);
+        assertThat(meterRegistry.get("app.tickets.conflicts").tag("operation", "start_progress").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void transitionInARolledBackTransactionIsTimedAsRolledBack() {
+        insert(1, Ticket.Status.ASSIGNED, Ticket.Priority.HIGH, OffsetDateTime.now());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ticketService.startProgress(1L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(operations("start_progress", "rolled_back")).isEqualTo(1);
+        assertThat(meterRegistry.find("app.tickets.operation").tag("outcome", "success").timer()).isNull();
+    }
+
+    @Test
+    void otherFailuresAreTimedAsErrors() {
+        assertThatThrownBy(() -> ticketService.resolve(404L)).hasMessage("Ticket not found with id: 404");
+
+        assertThat(operations("resolve", "error")).isEqualTo(1);
+        assertThat(meterRegistry.find("app.tickets.conflicts").counter()).isNull();
+    }
+
+    @Test
+    void queueGaugesReportTheLastSample() {
+        OffsetDateTime now = OffsetDateTime.now();
+        insert(1, Ticket.Status.NEW, Ticket.Priority.HIGH, now.minusHours(1));
+        insert(2, Ticket.Status.NEW, Ticket.Priority.HIGH, now.minusMinutes(5));
+        insert(3, Ticket.Status.NEW, Ticket.Priority.LOW, now.minusMinutes(10));
+        insert(4, Ticket.Status.ASSIGNED, Ticket.Priority.URGENT, now.minusHours(2));
+
+        ticketQueueMetrics.sample();
+
+        assertThat(depth(Ticket.Priority.HIGH)).isEqualTo(2.0);
+        assertThat(depth(Ticket.Priority.LOW)).isEqualTo(1.0);
+        assertThat(depth(Ticket.Priority.URGENT)).isZero();
+        assertThat(oldestAge()).isCloseTo(3600.0, within(60.0));
+
+        jdbcTemplate.update("UPDATE tickets SET status = 'ASSIGNED'");
+        ticketQueueMetrics.sample();
+
+        assertThat(depth(Ticket.Priority.HIGH)).isZero();
+        assertThat(oldestAge()).isZero();
+    }
+
+    private long operations(String operation, String outcome) {
+        return meterRegistry.get("app.tickets.operation")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer().count();
+    }
+
+    private double depth(Ticket.Priority priority) {
+        return meterRegistry.get("app.tickets.queue.depth").tag("priority", priority.name()).gauge().value();
+    }
+
+    private double oldestAge() {
+        return meterRegistry.get("app.tickets.queue.oldest.age").gauge().value();
+    }
+
+    private void insert(long id, Ticket.Status status, Ticket.Priority priority, OffsetDateTime createdAt) {
+        jdbcTemplate.update("""
+                        INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                             customer_name, customer_email, created_at, archived, version)
+                        VALUES (?, ?, 'Printer on fire', 'It is on fire', ?, 'TECHNICAL', ?, 'Ada',
+                                'ada@example.com', ?, FALSE, 0)
+                        """,
+                id, "TKT-METRICS-" + id, priority.name(), status.name(), createdAt);
+    }
+}
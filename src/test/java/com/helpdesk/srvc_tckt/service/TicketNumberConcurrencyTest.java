@@ -0,0 +1,100 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketCreateRequest;
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts tickets from many threads with sequence-block numbering and checks that every
+ * insert succeeds, i.e. the UNIQUE constraint on ticket_number is never hit.
+ */
+@SpringBootTest(properties = {
+        "app.ticket-number.mode=sequence",
+        "app.email.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:ticket_number_test"
+})
+class TicketNumberConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int TICKETS_PER_THREAD = 100;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketNumberGenerator ticketNumberGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentInsertsNeverCollideOnTicketNumber() throws Exception {
+        long before = ticketRepository.count();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < TICKETS_PER_THREAD; i++) {
+                        ticketService.createTicket(request());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        assertThat(ticketRepository.count() - before).isEqualTo(THREADS * TICKETS_PER_THREAD);
+    }
+
+    @Test
+    void replicasSharingTheSequenceGetDisjointBlocks() {
+        // A second generator stands in for another pod reading the same sequence
+        Long blockSize = jdbcTemplate.queryForObject(
+                "SELECT \"INCREMENT\" FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'TICKET_NUMBER_SEQ'", Long.class);
+        TicketNumberGenerator otherReplica = new SequenceBlockTicketNumberGenerator(
+                () -> jdbcTemplate.queryForObject("SELECT nextval('ticket_number_seq')", Long.class), blockSize);
+
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        int count = (int) (blockSize * 5);
+        for (int i = 0; i < count; i++) {
+            seen.add(ticketNumberGenerator.next());
+            seen.add(otherReplica.next());
+        }
+
+        assertThat(seen).hasSize(count * 2);
+    }
+
+    private static TicketCreateRequest request() {
+        return TicketCreateRequest.builder()
+                .subject("Load test")
+                .description("Generated by TicketNumberConcurrencyTest")
+                .priority(Ticket.Priority.MEDIUM)
+                .category(Ticket.Category.GENERAL)
+                .customerName("Load Test")
+                .customerEmail("load@example.com")
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.dto.TicketPage;
+import com.helpdesk.srvc_tckt.dto.TicketSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages through an agent's tickets by keyset cursor: tickets created at the same instant keep a
+ * stable order across pages, the last page has no cursor even when it is full, and the
+ * my-tickets view links to the next and first pages.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "app.archive.initial-delay=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:ticket_paging_test"
+})
+@AutoConfigureMockMvc
+class TicketPagingTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 3, 2, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void seedTickets() {
+        jdbcTemplate.update("DELETE FROM tickets");
+        insertTicket(1, "agent1", NOW.minusHours(2), false);
+        // Three created in the same instant, so only the id orders them
+        insertTicket(2, "agent1", NOW.minusHours(1), false);
+        insertTicket(3, "agent1", NOW.minusHours(1), false);
+        insertTicket(4, "agent1", NOW.minusHours(1), false);
+        insertTicket(5, "agent1", NOW, false);
+        insertTicket(6, "agent2", NOW, false);
+        insertTicket(7, "agent1", NOW, true);
+    }
+
+    @Test
+    void pagesKeepAStableOrderAcrossEqualCreationTimes() {
+        List<List<Long>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            TicketPage page = ticketService.getTicketsByAgentPage("agent1", cursor, 2);
+            pages.add(page.getTickets().stream().map(TicketSummary::id).toList());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(pages).containsExactly(List.of(5L, 4L), List.of(3L, 2L), List.of(1L));
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() {
+        TicketPage page = ticketService.getTicketsByAgentPage("agent1", null, 5);
+
+        assertThat(page.getTickets()).extracting(TicketSummary::id).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void myTicketsLinksToTheNextAndFirstPages() throws Exception {
+        ModelAndView first = myTickets("/tickets/my-tickets?size=3");
+        assertThat(tickets(first)).containsExactly(5L, 4L, 3L);
+        assertThat(first.getModel()).doesNotContainKey("firstPageUrl");
+
+        ModelAndView second = myTickets((String) first.getModel().get("nextPageUrl"));
+        assertThat(tickets(second)).containsExactly(2L, 1L);
+        assertThat(second.getModel()).doesNotContainKey("nextPageUrl");
+        assertThat((String) second.getModel().get("firstPageUrl")).endsWith("/tickets/my-tickets?size=3");
+    }
+
+    private ModelAndView myTickets(String url) throws Exception {
+        return mockMvc.perform(get(url).with(user("agent1")))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getModelAndView();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> tickets(ModelAndView view) {
+        return ((List<TicketSummary>) view.getModel().get("tickets")).stream().map(TicketSummary::id).toList();
+    }
+
+    private void insertTicket(long id, String agent, OffsetDateTime createdAt, boolean archived) {
+        jdbcTemplate.update("""
+                        INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                             customer_name, customer_email, assigned_to_agent, created_at, archived,
+                                             version)
+                        VALUES (?, ?, 'Printer on fire', 'It is on fire', 'HIGH', 'TECHNICAL', 'ASSIGNED', 'Ada',
+                                'ada@example.com', ?, ?, ?, 0)
+                        """,
+                id, "TKT-PAGE-" + id, agent, createdAt, archived);
+    }
+}
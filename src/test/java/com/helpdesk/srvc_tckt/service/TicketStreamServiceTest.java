@@ -0,0 +1,187 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streams live updates to MockMvc clients with the dispatch pool replaced by a queue the test
+ * runs by hand, so a client counts as slow until its drain is run: an overflowing buffer turns
+ * into a single resync, counter updates coalesce, connections beyond the limit get a 503, and
+ * the heartbeat drops emitters that can no longer be written to.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "app.archive.initial-delay=PT1H",
+        "app.sse.buffer-size=2",
+        "app.sse.max-connections=2",
+        "app.sse.heartbeat-interval=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:ticket_stream_test"
+})
+@AutoConfigureMockMvc
+class TicketStreamServiceTest {
+
+    private static final Pattern EVENT_NAME = Pattern.compile("^event:(\\S+)$", Pattern.MULTILINE);
+
+    @Autowired
+    private TicketStreamService ticketStreamService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private ExecutorService dispatcher;
+
+    @BeforeEach
+    void holdDispatch() {
+        ((Set<?>) ReflectionTestUtils.getField(ticketStreamService, "subscribers")).clear();
+        dispatcher = (ExecutorService) ReflectionTestUtils.getField(ticketStreamService, "dispatcher");
+        ExecutorService manual = mock(ExecutorService.class);
+        doAnswer(invocation -> pending.add(invocation.getArgument(0))).when(manual).execute(any());
+        ReflectionTestUtils.setField(ticketStreamService, "dispatcher", manual);
+    }
+
+    @AfterEach
+    void restoreDispatch() {
+        ReflectionTestUtils.setField(ticketStreamService, "dispatcher", dispatcher);
+    }
+
+    @Test
+    void clientStartsWithTheCurrentCounters() throws Exception {
+        MockHttpServletResponse response = connect();
+
+        assertThat(dispatch()).isEqualTo(1);
+
+        assertThat(events(response)).containsExactly("counters");
+        assertThat(response.getContentAsString()).contains("\"byStatus\"");
+    }
+
+    @Test
+    void overflowingBufferIsReplacedByOneResync() throws Exception {
+        MockHttpServletResponse response = connect();
+        dispatch();
+
+        // Five new tickets for a client that takes two before falling behind
+        for (long id = 1; id <= 5; id++) {
+            ticketStreamService.onTicketChanged(created(id));
+        }
+        dispatch();
+
+        assertThat(events(response)).containsExactly("counters", "resync", "counters");
+        assertThat(response.getContentAsString()).doesNotContain("TKT-STREAM-");
+
+        // Caught up again, so the next ticket arrives as usual
+        ticketStreamService.onTicketChanged(created(6));
+        dispatch();
+        assertThat(events(response)).containsExactly("counters", "resync", "counters", "ticket-created", "counters");
+        assertThat(response.getContentAsString()).contains("TKT-STREAM-6");
+    }
+
+    @Test
+    void counterUpdatesCoalesceToTheLatest() throws Exception {
+        MockHttpServletResponse response = connect();
+        dispatch();
+
+        for (int i = 0; i < 5; i++) {
+            ticketStreamService.heartbeat();
+        }
+
+        assertThat(dispatch()).isEqualTo(1);
+        assertThat(events(response)).containsExactly("counters", "counters");
+    }
+
+    @Test
+    void connectionsBeyondTheLimitAreTurnedAway() throws Exception {
+        connect();
+        connect();
+
+        mockMvc.perform(get("/tickets/stream").with(user("agent3")))
+                .andExpect(status().isServiceUnavailable());
+        assertThat(ticketStreamService.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void heartbeatDropsEmittersThatCannotBeWritten() {
+        SseEmitter dead = ticketStreamService.subscribe();
+        ticketStreamService.subscribe();
+        dispatch();
+        // Closed without the container telling the service, as after a silent disconnect
+        dead.complete();
+        assertThat(ticketStreamService.getSubscriberCount()).isEqualTo(2);
+
+        ticketStreamService.heartbeat();
+        dispatch();
+
+        assertThat(ticketStreamService.getSubscriberCount()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse connect() throws Exception {
+        return mockMvc.perform(get("/tickets/stream").with(user("agent1")))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    // Runs the queued drains, including any they queue themselves; returns how many ran
+    private int dispatch() {
+        int ran = 0;
+        Runnable task;
+        while ((task = pending.poll()) != null) {
+            task.run();
+            ran++;
+        }
+        return ran;
+    }
+
+    private static List<String> events(MockHttpServletResponse response) throws Exception {
+        Matcher matcher = EVENT_NAME.matcher(response.getContentAsString());
+        List<String> names = new ArrayList<>();
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names;
+    }
+
+    private static TicketChangedEvent created(long id) {
+        Ticket ticket = Ticket.builder()
+                .id(id)
+                .ticketNumber("TKT-STREAM-" + id)
+                .subject("Printer on fire")
+                .priority(Ticket.Priority.HIGH)
+                .category(Ticket.Category.TECHNICAL)
+                .status(Ticket.Status.NEW)
+                .customerName("Ada")
+                .createdAt(ZonedDateTime.now())
+                .archived(false)
+                .build();
+        return TicketChangedEvent.of(TicketChangedEvent.Type.CREATED, ticket, null, ticket.getCreatedAt());
+    }
+}
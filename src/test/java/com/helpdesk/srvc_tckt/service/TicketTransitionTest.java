@@ -0,0 +1,231 @@
+package com.helpdesk.srvc_tckt.service;
+
+import com.helpdesk.srvc_tckt.entity.Ticket;
+import com.helpdesk.srvc_tckt.entity.TicketTransition;
+import com.helpdesk.srvc_tckt.event.TicketChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Applies every workflow transition through {@link TicketService} and checks the conditional
+ * UPDATE behind it: the row moves to the target status with its version bumped, the published
+ * event carries the status before and after, a ticket no longer in a source status is rejected
+ * with a {@link TicketConflictException} and left alone, and of several agents taking the same
+ * ticket at once exactly one wins.
+ */
+@SpringBootTest(properties = {
+        "app.email.enabled=false",
+        "app.archive.initial-delay=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:ticket_transition_test"
+})
+@RecordApplicationEvents
+class TicketTransitionTest {
+
+    private static final int AGENTS = 8;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void clearTickets() {
+        jdbcTemplate.update("DELETE FROM tickets");
+        jdbcTemplate.update("DELETE FROM tickets_archive");
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketTransition.class)
+    void transitionMovesTheTicketAndReportsTheStatusItLeft(TicketTransition transition) {
+        Ticket.Status source = transition.getSources().iterator().next();
+        insert(1, source, 4);
+
+        Ticket ticket = apply(transition, 1L);
+
+        assertThat(ticket.getStatus()).isEqualTo(transition.getTarget());
+        assertThat(ticket.getVersion()).isEqualTo(5);
+        assertThat(stored(1L)).containsEntry("STATUS", transition.getTarget().name()).containsEntry("VERSION", 5L);
+        if (transition.getTimestamp() == TicketTransition.Timestamp.ASSIGNED_AT) {
+            assertThat(ticket.getAssignedAt()).isNotNull();
+            assertThat(ticket.getAssignedToAgent()).isEqualTo("agent1");
+            assertThat(stored(1L)).containsEntry("ASSIGNED_TO_AGENT", "agent1");
+        } else if (transition.getTimestamp() == TicketTransition.Timestamp.RESOLVED_AT) {
+            assertThat(ticket.getResolvedAt()).isNotNull();
+            assertThat(stored(1L).get("RESOLVED_AT")).isNotNull();
+        }
+        assertThat(events.stream(TicketChangedEvent.class)).singleElement().satisfies(event -> {
+            assertThat(event.type()).isEqualTo(TicketService.eventType(transition));
+            assertThat(event.ticket().getId()).isEqualTo(1L);
+            assertThat(event.previous().status()).isEqualTo(source);
+            assertThat(event.previous().archived()).isFalse();
+            assertThat(event.current().status()).isEqualTo(transition.getTarget());
+            assertThat(event.current().archived()).isEqualTo(transition.archives());
+            assertThat(event.current().priority()).isEqualTo(Ticket.Priority.HIGH);
+        });
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketTransition.class)
+    void ticketInAnotherStatusIsRejectedAndLeftAlone(TicketTransition transition) {
+        Ticket.Status other = Arrays.stream(Ticket.Status.values())
+                .filter(status -> !transition.getSources().contains(status) && status != Ticket.Status.ARCHIVED)
+                .findFirst()
+                .orElseThrow();
+        insert(2, other, 4);
+
+        assertThatThrownBy(() -> apply(transition, 2L))
+                .isInstanceOf(TicketConflictException.class)
+                .hasMessageContaining("Current status: " + other);
+
+        assertThat(stored(2L)).containsEntry("STATUS", other.name()).containsEntry("VERSION", 4L);
+        assertThat(events.stream(TicketChangedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void secondTransitionFromTheSameStatusConflicts() {
+        insert(3, Ticket.Status.IN_PROGRESS, 0);
+
+        ticketService.resolve(3L);
+
+        assertThatThrownBy(() -> ticketService.resolve(3L))
+                .isInstanceOf(TicketConflictException.class)
+                .hasMessageContaining("Current status: RESOLVED");
+        assertThat(stored(3L)).containsEntry("VERSION", 1L);
+    }
+
+    @Test
+    void archivedTicketIsReportedWithItsArchivedStatus() {
+        insert(4, Ticket.Status.CLOSED, 0);
+        ticketService.archive(4L);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets_archive WHERE id = 4", Long.class))
+                .isEqualTo(1L);
+        assertThatThrownBy(() -> ticketService.archive(4L))
+                .isInstanceOf(TicketConflictException.class)
+                .hasMessageContaining("Current status: ARCHIVED");
+    }
+
+    @Test
+    void unknownTicketIsNotFound() {
+        assertThatThrownBy(() -> ticketService.startProgress(999L))
+                .isNotInstanceOf(TicketConflictException.class)
+                .hasMessage("Ticket not found with id: 999");
+    }
+
+    @Test
+    void concurrentAssignsHaveOneWinner() throws Exception {
+        insert(5, Ticket.Status.NEW, 0);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(AGENTS)) {
+            for (int i = 0; i < AGENTS; i++) {
+                String agent = "agent" + i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return ticketService.assignToAgent(5L, agent).getAssignedToAgent();
+                    } catch (TicketConflictException e) {
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+
+        List<String> winners = new ArrayList<>();
+        for (Future<String> result : results) {
+            Optional.ofNullable(result.get()).ifPresent(winners::add);
+        }
+        assertThat(winners).hasSize(1);
+        assertThat(stored(5L)).containsEntry("ASSIGNED_TO_AGENT", winners.getFirst()).containsEntry("VERSION", 1L);
+    }
+
+    @Test
+    void concurrentClaimsNeverTakeTheSameTicket() throws Exception {
+        for (long id = 10; id < 10 + AGENTS * 2; id++) {
+            insert(id, Ticket.Status.NEW, 0);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Long>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(AGENTS)) {
+            for (int i = 0; i < AGENTS; i++) {
+                String agent = "agent" + i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<Long> claimed = new ArrayList<>();
+                    Optional<Ticket> ticket;
+                    while ((ticket = ticketService.claimNextTicket(agent)).isPresent()) {
+                        claimed.add(ticket.get().getId());
+                    }
+                    return claimed;
+                }));
+            }
+            start.countDown();
+        }
+
+        List<Long> claimed = new ArrayList<>();
+        for (Future<List<Long>> result : results) {
+            claimed.addAll(result.get());
+        }
+        assertThat(claimed).hasSize(AGENTS * 2).doesNotHaveDuplicates();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets WHERE status = 'NEW'", Long.class))
+                .isZero();
+    }
+
+    private Ticket apply(TicketTransition transition, Long id) {
+        return switch (transition) {
+            case ASSIGN -> ticketService.assignToAgent(id, "agent1");
+            case START_PROGRESS -> ticketService.startProgress(id);
+            case REQUEST_INFO -> ticketService.requestCustomerInfo(id);
+            case REOPEN -> ticketService.reopen(id);
+            case RESOLVE -> ticketService.resolve(id);
+            case CLOSE -> ticketService.close(id);
+            case ARCHIVE -> ticketService.archive(id);
+        };
+    }
+
+    private void insert(long id, Ticket.Status status, long version) {
+        jdbcTemplate.update("""
+                        INSERT INTO tickets (id, ticket_number, subject, description, priority, category, status,
+                                             customer_name, customer_email, created_at, archived, version)
+                        VALUES (?, ?, 'Printer on fire', 'It is on fire', 'HIGH', 'TECHNICAL', ?, 'Ada',
+                                'ada@example.com', CURRENT_TIMESTAMP, FALSE, ?)
+                        """,
+                id, "TKT-TRANSITION-" + id, status.name(), version);
+    }
+
+    // The row wherever it lives now
+    private Map<String, Object> stored(Long id) {
+        return jdbcTemplate.queryForMap("""
+                SELECT status, version, assigned_to_agent, resolved_at FROM tickets WHERE id = ?
+                UNION ALL
+                SELECT status, version, assigned_to_agent, resolved_at FROM tickets_archive WHERE id = ?
+                """, id, id);
+    }
+}